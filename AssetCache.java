@@ -0,0 +1,45 @@
+package se233.Asteroids_Project.model;
+
+import javafx.scene.image.Image;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decodes each image resource once per process and hands out the shared instance.
+// Returns null in headless mode, where there is no toolkit to decode into.
+public final class AssetCache {
+    private static final Logger logger = LogManager.getLogger(AssetCache.class);
+
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private AssetCache() {
+    }
+
+    public static Image getImage(String path) {
+        if (Headless.isEnabled()) return null;
+        return images.computeIfAbsent(path, AssetCache::load);
+    }
+
+    public static int size() {
+        return images.size();
+    }
+
+    private static Image load(String path) {
+        try (InputStream stream = AssetCache.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                logger.error("Missing image resource {}", path);
+                return null;
+            }
+            Image image = new Image(stream);
+            logger.debug("Decoded {} ({}x{})", path, image.getWidth(), image.getHeight());
+            return image;
+        } catch (IOException e) {
+            logger.error("Failed to load image {}", path, e);
+            return null;
+        }
+    }
+}
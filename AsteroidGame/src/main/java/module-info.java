@@ -1,10 +1,18 @@
 module se233.asteroidgame {
     requires javafx.controls;
     requires javafx.fxml;
-
+    requires org.apache.logging.log4j;
+    requires org.apache.logging.log4j.core;
 
     opens se233.asteroidgame to javafx.fxml;
     exports se233.asteroidgame;
     exports se233.asteroidgame.controller;
+    exports se233.asteroidgame.model;
+    exports se233.Asteroids_Project.controller;
+    exports se233.Asteroids_Project.model;
+    exports se233.Asteroids_Project.model.Asset;
+    exports se233.Asteroids_Project.model.Effect;
+    exports se233.Asteroids_Project.model.Entities;
+    exports se233.Asteroids_Project.view;
     opens se233.asteroidgame.controller to javafx.fxml;
 }
\ No newline at end of file
@@ -1,31 +1,72 @@
 package se233.asteroidgame.model;
 
-import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
+import java.util.List;
+
+// ImageView that plays a sprite sheet. Viewports come precomputed from a shared SpriteSheet and
+// setViewport is only called when the visible frame actually changes, so advancing allocates
+// nothing and doesn't dirty the scene graph between frames.
 public class AnimatedSprite extends ImageView {
-    int count,columns,rows,offsetX,offsetY,width,height,curIndex,curColumnIndex = 0,curRowIndex = 0;
+    public static final double DEFAULT_FRAME_DURATION = 0.1;
+
+    private final SpriteSheet sheet;
+    private final double frameDuration;
+    private int curIndex;
+    private double elapsed;
+
     public AnimatedSprite(Image image, int count, int columns, int rows, int offsetX, int offsetY, int width, int height) {
+        this(image, count, columns, rows, offsetX, offsetY, width, height, DEFAULT_FRAME_DURATION);
+    }
+
+    public AnimatedSprite(Image image, int count, int columns, int rows, int offsetX, int offsetY, int width, int height,
+                          double frameDuration) {
+        this.sheet = SpriteSheet.of(image, count, columns, rows, offsetX, offsetY, width, height);
+        this.frameDuration = frameDuration;
         this.setImage(image);
-        this.count = count;
-        this.columns = columns;
-        this.rows = rows;
-        this.offsetX = offsetX;
-        this.offsetY = offsetY;
-        this.width = width;
-        this.height = height;
-        this.setViewport(new Rectangle2D(offsetX, offsetY, width, height));
-    }
-    public void tick(){
-        curColumnIndex = curIndex % columns;
-        curRowIndex = curIndex / columns;
-        curIndex = (curIndex+1)%(columns*rows);
-        interpolate();
-    }
-    protected void interpolate(){
-        final int x = curColumnIndex*width+offsetX;
-        final int y = curRowIndex*height+offsetY;
-        this.setViewport(new Rectangle2D(x,y,width,height));
+        this.setViewport(sheet.getViewport(0));
+    }
+
+    // Step exactly one frame
+    public void tick() {
+        elapsed = 0;
+        showFrame((curIndex + 1) % sheet.getFrameCount());
+    }
+
+    // Advance by elapsed time; skips frames when seconds spans several
+    public void advance(double seconds) {
+        elapsed += seconds;
+        if (elapsed < frameDuration) return;
+        int frames = (int) (elapsed / frameDuration);
+        elapsed -= frames * frameDuration;
+        showFrame((curIndex + frames) % sheet.getFrameCount());
+    }
+
+    // Advance many sprites in one pass, e.g. everything on screen once per pulse
+    public static void advanceAll(List<? extends AnimatedSprite> sprites, double seconds) {
+        for (int i = 0, n = sprites.size(); i < n; i++) {
+            sprites.get(i).advance(seconds);
+        }
+    }
+
+    public void reset() {
+        elapsed = 0;
+        showFrame(0);
+    }
+
+    public int getFrame() {
+        return curIndex;
+    }
+
+    public SpriteSheet getSheet() {
+        return sheet;
+    }
+
+    private void showFrame(int frame) {
+        if (frame != curIndex) {
+            curIndex = frame;
+            setViewport(sheet.getViewport(frame));
+        }
     }
 }
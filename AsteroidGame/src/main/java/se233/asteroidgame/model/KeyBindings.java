@@ -0,0 +1,93 @@
+package se233.asteroidgame.model;
+
+import javafx.scene.input.KeyCode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Properties;
+
+// Maps game actions to keys. Defaults match the original controls and can be overridden by
+// a keybindings.properties resource: ACTION = KEY[,KEY...] using KeyCode names.
+public class KeyBindings {
+    private static final Logger logger = LogManager.getLogger(KeyBindings.class);
+    private static final String RESOURCE = "/se233/asteroidgame/keybindings.properties";
+
+    public enum Action {
+        MOVE_FORWARD,
+        MOVE_BACKWARD,
+        MOVE_LEFT,
+        MOVE_RIGHT,
+        ROTATE_LEFT,
+        ROTATE_RIGHT,
+        NUKE,
+        START,
+        QUIT
+    }
+
+    private final EnumMap<Action, KeyCode[]> bindings = new EnumMap<>(Action.class);
+
+    public KeyBindings() {
+        bind(Action.MOVE_FORWARD, KeyCode.W);
+        bind(Action.MOVE_BACKWARD, KeyCode.S);
+        bind(Action.MOVE_LEFT, KeyCode.A);
+        bind(Action.MOVE_RIGHT, KeyCode.D);
+        bind(Action.ROTATE_LEFT, KeyCode.LEFT);
+        bind(Action.ROTATE_RIGHT, KeyCode.RIGHT);
+        bind(Action.NUKE, KeyCode.E);
+        bind(Action.START, KeyCode.ENTER);
+        bind(Action.QUIT, KeyCode.ESCAPE);
+    }
+
+    // Defaults plus whatever keybindings.properties overrides
+    public static KeyBindings load() {
+        KeyBindings keyBindings = new KeyBindings();
+        try (InputStream in = KeyBindings.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return keyBindings;
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            for (String name : properties.stringPropertyNames()) {
+                try {
+                    Action action = Action.valueOf(name.trim());
+                    String[] names = properties.getProperty(name).split(",");
+                    KeyCode[] keys = new KeyCode[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        keys[i] = KeyCode.valueOf(names[i].trim());
+                    }
+                    keyBindings.bind(action, keys);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring key binding {} = {}", name, properties.getProperty(name));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read {}", RESOURCE, e);
+        }
+        return keyBindings;
+    }
+
+    public void bind(Action action, KeyCode... keys) {
+        bindings.put(action, keys.clone());
+    }
+
+    public KeyCode[] getKeys(Action action) {
+        return bindings.get(action).clone();
+    }
+
+    public boolean isDown(Keys keys, Action action) {
+        for (KeyCode key : bindings.get(action)) {
+            if (keys.isPressed(key)) return true;
+        }
+        return false;
+    }
+
+    public boolean wasPressed(Keys keys, Action action) {
+        for (KeyCode key : bindings.get(action)) {
+            if (keys.wasPressedThisTick(key)) return true;
+        }
+        return false;
+    }
+}
@@ -2,20 +2,66 @@ package se233.asteroidgame.model;
 
 import javafx.scene.input.KeyCode;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
+// Key state as bitsets indexed by KeyCode ordinal: which keys are held, and which went down or
+// up since the last endTick(). Lookups are a shift and a mask, with no hashing or boxing.
 public class Keys {
-    private HashMap<KeyCode,Boolean> keys;
-    public Keys() {
-        keys = new HashMap<>();
+    private static final int WORDS = (KeyCode.values().length + 63) >>> 6;
+
+    private final long[] down = new long[WORDS];
+    private final long[] pressed = new long[WORDS];
+    private final long[] released = new long[WORDS];
+
+    public void add(KeyCode key) {
+        int index = key.ordinal();
+        long bit = 1L << index;
+        int word = index >>> 6;
+        // Ignore auto-repeat while the key is held
+        if ((down[word] & bit) == 0) {
+            down[word] |= bit;
+            pressed[word] |= bit;
+        }
     }
-    public void add(KeyCode key){
-        keys.put(key,true);
+
+    public void remove(KeyCode key) {
+        int index = key.ordinal();
+        long bit = 1L << index;
+        int word = index >>> 6;
+        if ((down[word] & bit) != 0) {
+            down[word] &= ~bit;
+            released[word] |= bit;
+        }
     }
-    public void remove(KeyCode key){
-        keys.put(key,false);
+
+    // Held right now
+    public boolean isPressed(KeyCode key) {
+        return test(down, key);
     }
-    public boolean isPressed(KeyCode key){
-        return keys.getOrDefault(key,false);
+
+    // Went down during the current tick
+    public boolean wasPressedThisTick(KeyCode key) {
+        return test(pressed, key);
+    }
+
+    // Went up during the current tick
+    public boolean wasReleasedThisTick(KeyCode key) {
+        return test(released, key);
+    }
+
+    // Forget this tick's edges; held keys stay held
+    public void endTick() {
+        Arrays.fill(pressed, 0);
+        Arrays.fill(released, 0);
+    }
+
+    public void clear() {
+        Arrays.fill(down, 0);
+        endTick();
+    }
+
+    private static boolean test(long[] bits, KeyCode key) {
+        int index = key.ordinal();
+        return (bits[index >>> 6] & (1L << index)) != 0;
     }
 }
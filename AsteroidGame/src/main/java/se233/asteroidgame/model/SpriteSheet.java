@@ -0,0 +1,64 @@
+package se233.asteroidgame.model;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Frame layout of a sprite sheet with every frame's viewport computed once. Sheets are
+// interned, so all AnimatedSprites cut from the same image and grid share one instance. The
+// intern table holds images and sheets weakly: a sheet goes once no sprite uses it, and an
+// image's entry once the image itself is unreachable.
+public final class SpriteSheet {
+    private record Layout(int count, int columns, int rows, int offsetX, int offsetY, int width, int height) {
+    }
+
+    // Image has identity equality, so sheets are shared per loaded image
+    private static final Map<Image, Map<Layout, WeakReference<SpriteSheet>>> SHEETS = new WeakHashMap<>();
+
+    private final Image image;
+    private final Rectangle2D[] viewports;
+
+    private SpriteSheet(Image image, int count, int columns, int rows, int offsetX, int offsetY, int width, int height) {
+        this.image = image;
+        // count limits a partly filled grid; 0 or too large means every cell
+        int cells = columns * rows;
+        int frames = count > 0 && count < cells ? count : cells;
+        this.viewports = new Rectangle2D[frames];
+        for (int i = 0; i < frames; i++) {
+            int x = (i % columns) * width + offsetX;
+            int y = (i / columns) * height + offsetY;
+            viewports[i] = new Rectangle2D(x, y, width, height);
+        }
+    }
+
+    public static SpriteSheet of(Image image, int count, int columns, int rows,
+                                 int offsetX, int offsetY, int width, int height) {
+        Layout layout = new Layout(count, columns, rows, offsetX, offsetY, width, height);
+        synchronized (SHEETS) {
+            Map<Layout, WeakReference<SpriteSheet>> layouts = SHEETS.computeIfAbsent(image, key -> new HashMap<>());
+            WeakReference<SpriteSheet> reference = layouts.get(layout);
+            SpriteSheet sheet = reference == null ? null : reference.get();
+            if (sheet == null) {
+                sheet = new SpriteSheet(image, count, columns, rows, offsetX, offsetY, width, height);
+                layouts.put(layout, new WeakReference<>(sheet));
+            }
+            return sheet;
+        }
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    public int getFrameCount() {
+        return viewports.length;
+    }
+
+    public Rectangle2D getViewport(int frame) {
+        return viewports[frame];
+    }
+}
@@ -0,0 +1,99 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se233.Asteroids_Project.model.GameWorld;
+import se233.Asteroids_Project.model.Headless;
+import se233.asteroidgame.model.KeyBindings;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReplayTest {
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    private static final double STEP = FixedStepLoop.DEFAULT_STEP;
+    private static final int TICKS = 600;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void headless() {
+        Headless.enable();
+    }
+
+    @Test
+    void replayEndsWithTheRecordedScoreAndState() throws IOException {
+        GameWorld recorded = record(1234);
+
+        Replay replay = Replay.read(replayFile());
+        GameWorld replayed = new GameWorld(WIDTH, HEIGHT, 0);
+        assertEquals(TICKS, replay.play(replayed, false));
+
+        assertEquals(recorded.getScoring().getCurrentScore(), replayed.getScoring().getCurrentScore());
+        assertEquals(recorded.getState(), replayed.getState());
+        assertEquals(recorded.getEntityCount(), replayed.getEntityCount());
+        assertEquals(Replay.stateHash(recorded), Replay.stateHash(replayed));
+    }
+
+    @Test
+    void replayEndingInAnotherStateIsReported() throws IOException {
+        record(99);
+        Path file = replayFile();
+        // The end state hash is the file's last four bytes
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 4);
+            int hash = raf.readInt();
+            raf.seek(raf.length() - 4);
+            raf.writeInt(~hash);
+        }
+
+        Replay replay = Replay.read(file);
+        assertThrows(IllegalStateException.class, () -> replay.play(new GameWorld(WIDTH, HEIGHT, 0), false));
+    }
+
+    // Plays TICKS ticks of scripted input the way GameController does, recording them
+    private GameWorld record(long seed) {
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, seed);
+        TickInput input = new TickInput(world, new KeyBindings());
+        ReplayRecorder recorder = new ReplayRecorder(input, STEP, directory.toString());
+        // GameController begins from inside a tick's input, so that tick steps with no events
+        recorder.begin(world);
+        world.startNewGame();
+        recorder.endTick();
+        world.step(STEP);
+
+        for (int tick = 1; tick < TICKS; tick++) {
+            if (tick % 40 == 0) {
+                recorder.keyPressed(KeyCode.W, tick);
+            } else if (tick % 40 == 20) {
+                recorder.keyReleased(KeyCode.W, tick);
+            }
+            double angle = Math.toRadians(tick * 3.0);
+            recorder.mouseMoved(WIDTH / 2 + Math.cos(angle) * 100, HEIGHT / 2 + Math.sin(angle) * 100, tick);
+            if (tick % 10 == 0) {
+                recorder.mouseClicked(WIDTH / 2 + Math.cos(angle) * 100, HEIGHT / 2 + Math.sin(angle) * 100, tick);
+            }
+            input.apply();
+            recorder.endTick();
+            world.step(STEP);
+        }
+        recorder.finish(world);
+        return world;
+    }
+
+    private Path replayFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".replay")).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package se233.Asteroids_Project.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HighScoreStoreTest {
+    private static final int[] SCORES = {300, 1200, 50, 800};
+    private static final int[] RANKED = {1200, 800, 300, 50};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scoresSurviveReopening() throws IOException {
+        submitAll();
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            assertArrayEquals(RANKED, scores(store));
+            assertEquals(1200, store.getHighestScore());
+        }
+    }
+
+    @Test
+    void tornLastRecordIsCutOff() throws IOException {
+        submitAll();
+        Path log = directory.resolve("scores.log");
+        long intact = Files.size(log);
+        // Half a record, as if the process died part way through a write
+        append(log, ByteBuffer.wrap(new byte[12]));
+
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            assertArrayEquals(RANKED, scores(store));
+        }
+        assertEquals(intact, Files.size(log));
+    }
+
+    @Test
+    void recordsPastTheIndexAreReplayed() throws IOException {
+        submitAll();
+        // A record that was synced to the log before the index was rewritten
+        append(directory.resolve("scores.log"), record(5000, 42));
+
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            assertEquals(5000, store.getHighestScore());
+            assertEquals(42, store.getTop()[0].seed());
+            assertEquals(SCORES.length + 1, store.getTop().length);
+        }
+    }
+
+    @Test
+    void tornIndexIsRebuiltFromTheLog() throws IOException {
+        submitAll();
+        Path index = directory.resolve("scores.idx");
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+            // Scribble over the first entry, so the checksum no longer matches
+            channel.write(ByteBuffer.allocate(8), 24);
+        }
+
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            assertArrayEquals(RANKED, scores(store));
+        }
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            assertArrayEquals(RANKED, scores(store));
+        }
+    }
+
+    // Submits SCORES, seeded with their position, and closes so they are on disk
+    private void submitAll() throws IOException {
+        try (HighScoreStore store = HighScoreStore.open(directory)) {
+            for (int i = 0; i < SCORES.length; i++) {
+                store.submit(SCORES[i], i);
+            }
+        }
+    }
+
+    private static int[] scores(HighScoreStore store) {
+        return Arrays.stream(store.getTop()).mapToInt(HighScoreStore.Entry::score).toArray();
+    }
+
+    // Same layout as the store writes: timestamp, score, seed, CRC32 of the first 20 bytes
+    private static ByteBuffer record(int score, long seed) {
+        ByteBuffer record = ByteBuffer.allocate(24);
+        record.putLong(System.currentTimeMillis()).putInt(score).putLong(seed);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, 20);
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    private static void append(Path file, ByteBuffer data) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+}
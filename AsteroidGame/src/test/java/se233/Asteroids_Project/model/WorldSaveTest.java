@@ -0,0 +1,117 @@
+package se233.Asteroids_Project.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorldSaveTest {
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    private static final double STEP = 1.0 / 60.0;
+    // Bytes of world settings, flags, RNG, spawn timer and score before the player's state
+    private static final int PLAYER_OFFSET = 50;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void headless() {
+        Headless.enable();
+    }
+
+    @Test
+    void loadedWorldEqualsTheSavedOne() throws IOException {
+        GameWorld saved = playedWorld(7);
+        Path file = directory.resolve("world.save");
+        new WorldSave().save(saved, file);
+
+        GameWorld loaded = new GameWorld(WIDTH, HEIGHT, 0);
+        new WorldSave().load(loaded, file);
+
+        assertEquals(saved.getState(), loaded.getState());
+        assertEquals(saved.getScoring().getCurrentScore(), loaded.getScoring().getCurrentScore());
+        assertEquals(saved.getRandom().getState(), loaded.getRandom().getState());
+        assertEquals(saved.getEntityCount(), loaded.getEntityCount());
+        assertEquals(saved.getPlayerProjectiles().size(), loaded.getPlayerProjectiles().size());
+        assertEquals(state(saved), state(loaded));
+    }
+
+    @Test
+    void loadedWorldPlaysOnLikeTheSavedOne() throws IOException {
+        GameWorld saved = playedWorld(7);
+        Path file = directory.resolve("world.save");
+        new WorldSave().save(saved, file);
+        GameWorld loaded = new GameWorld(WIDTH, HEIGHT, 0);
+        new WorldSave().load(loaded, file);
+
+        // Velocities, hit points and cooldowns that didn't survive would show up here
+        play(saved, 300, 600);
+        play(loaded, 300, 600);
+        assertEquals(saved.getScoring().getCurrentScore(), loaded.getScoring().getCurrentScore());
+        assertEquals(saved.getEntityCount(), loaded.getEntityCount());
+        assertEquals(state(saved), state(loaded));
+    }
+
+    @Test
+    void unknownGameStateLeavesTheWorldAsItWas() throws IOException {
+        ByteBuffer payload = state(playedWorld(7));
+        // The game state ordinal follows the world's width and height
+        payload.put(16, (byte) 99);
+        assertLoadFailsWithoutChanges(payload);
+    }
+
+    @Test
+    void impossibleEntityCountLeavesTheWorldAsItWas() throws IOException {
+        GameWorld saved = playedWorld(7);
+        ByteBuffer payload = state(saved);
+        // The asteroid count follows the player, so the player has been decoded when it fails
+        payload.putInt(PLAYER_OFFSET + state(saved.getPlayer()).remaining(), Integer.MAX_VALUE);
+        assertLoadFailsWithoutChanges(payload);
+    }
+
+    // Writes payload under a valid header and checksum, so the load gets as far as readState
+    private void assertLoadFailsWithoutChanges(ByteBuffer payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer save = ByteBuffer.allocate(16 + payload.remaining());
+        save.putInt(WorldSave.MAGIC).putInt(WorldSave.VERSION).putInt(payload.remaining()).putInt((int) crc.getValue());
+        save.put(payload.duplicate());
+        Path file = directory.resolve("corrupt.save");
+        Files.write(file, save.array());
+
+        GameWorld world = playedWorld(8);
+        ByteBuffer before = state(world);
+        assertThrows(IOException.class, () -> new WorldSave().load(world, file));
+        assertEquals(before, state(world));
+    }
+
+    // A game a few seconds in, with the player turning and firing
+    private static GameWorld playedWorld(long seed) {
+        GameWorld world = new GameWorld(WIDTH, HEIGHT, seed);
+        world.startNewGame();
+        play(world, 0, 300);
+        return world;
+    }
+
+    private static void play(GameWorld world, int fromTick, int toTick) {
+        for (int tick = fromTick; tick < toTick; tick++) {
+            double angle = Math.toRadians(tick * 3.0);
+            world.rotatePlayerToCursor(WIDTH / 2 + Math.cos(angle) * 100, HEIGHT / 2 + Math.sin(angle) * 100);
+            world.fireProjectile();
+            world.step(STEP);
+        }
+    }
+
+    private static ByteBuffer state(Persistent persistent) {
+        return Persistent.encode(persistent, ByteBuffer.allocate(64 * 1024));
+    }
+}
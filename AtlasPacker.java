@@ -0,0 +1,119 @@
+package se233.Asteroids_Project.view;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// Build-time tool that packs the sprite sheets listed in atlas-sprites.properties into one
+// texture (atlas.png) plus an index (atlas.properties) read by SpriteAtlas at runtime. The
+// AsteroidGame build runs it from source during process-resources, writing into its classes.
+// Usage: java AtlasPacker.java <asset source dir> <output dir>
+public class AtlasPacker {
+    private static final String SPEC_FILE = "atlas-sprites.properties";
+    private static final int MAX_WIDTH = 1024;
+    private static final int PADDING = 1;
+
+    private static final class Entry {
+        final String name;
+        final BufferedImage image;
+        final int frameWidth;
+        final int frameHeight;
+        int x;
+        int y;
+
+        Entry(String name, BufferedImage image, int frameWidth, int frameHeight) {
+            this.name = name;
+            this.image = image;
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AtlasPacker <asset source dir> <output dir>");
+            System.exit(1);
+        }
+        File sourceDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+
+        Properties spec = new Properties();
+        try (InputStream in = new FileInputStream(new File(sourceDir, SPEC_FILE))) {
+            spec.load(in);
+        }
+
+        // file.png = frameWidth x frameHeight, or empty for a single-frame image
+        List<Entry> entries = new ArrayList<>();
+        for (String file : spec.stringPropertyNames()) {
+            File source = new File(sourceDir, file);
+            if (!source.isFile()) {
+                throw new IOException("Sprite " + file + " listed in " + SPEC_FILE + " is missing from " + sourceDir);
+            }
+            BufferedImage image = ImageIO.read(source);
+            if (image == null) {
+                throw new IOException("Cannot decode " + file);
+            }
+            String frame = spec.getProperty(file).trim();
+            int frameWidth = image.getWidth();
+            int frameHeight = image.getHeight();
+            if (!frame.isEmpty()) {
+                String[] size = frame.split("x");
+                frameWidth = Integer.parseInt(size[0].trim());
+                frameHeight = Integer.parseInt(size[1].trim());
+            }
+            String name = file.substring(0, file.lastIndexOf('.'));
+            entries.add(new Entry(name, image, frameWidth, frameHeight));
+        }
+
+        // Shelf packing, tallest first
+        entries.sort((a, b) -> b.image.getHeight() - a.image.getHeight());
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int atlasWidth = 0;
+        for (Entry entry : entries) {
+            int width = entry.image.getWidth();
+            if (x > 0 && x + width > MAX_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            entry.x = x;
+            entry.y = y;
+            x += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, entry.image.getHeight());
+            atlasWidth = Math.max(atlasWidth, x);
+        }
+        int atlasHeight = y + shelfHeight;
+
+        BufferedImage atlas = new BufferedImage(Math.max(1, atlasWidth), Math.max(1, atlasHeight),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        Properties index = new Properties();
+        for (Entry entry : entries) {
+            g.drawImage(entry.image, entry.x, entry.y, null);
+            index.setProperty(entry.name, entry.x + "," + entry.y + ","
+                    + entry.image.getWidth() + "," + entry.image.getHeight() + ","
+                    + entry.frameWidth + "," + entry.frameHeight);
+        }
+        g.dispose();
+
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+        ImageIO.write(atlas, "png", new File(outputDir, "atlas.png"));
+        try (OutputStream out = new FileOutputStream(new File(outputDir, "atlas.properties"))) {
+            index.store(out, "Generated by AtlasPacker: name = x,y,width,height,frameWidth,frameHeight");
+        }
+        System.out.printf("Packed %d sprites into %dx%d atlas%n", entries.size(), atlasWidth, atlasHeight);
+    }
+}
@@ -0,0 +1,262 @@
+package se233.Asteroids_Project.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.AllObject;
+import se233.Asteroids_Project.model.GameRandom;
+import se233.Asteroids_Project.model.GameState;
+import se233.Asteroids_Project.model.GameWorld;
+import se233.Asteroids_Project.model.Headless;
+import se233.Asteroids_Project.model.LatencyHistogram;
+import se233.Asteroids_Project.model.ParallelUpdate;
+import se233.Asteroids_Project.model.TickProfiler;
+import se233.Asteroids_Project.model.Entities.Player;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Plays many independent headless games at once for balancing and regression runs. Every world
+// gets its own seed, drawn from one base seed so a batch is reproducible, a Pilot that drives
+// its input, and a single-threaded ParallelUpdate: the parallelism is across worlds. Each game
+// runs until the player dies or the time limit; score, survival, entity peaks and tick times
+// are aggregated into a log summary and a CSV with one row per world.
+// Usage: BatchSimulator [worlds] [maxSeconds] [SCRIPTED|AI|RANDOM] [baseSeed] [report.csv]
+// Worlds run on virtual threads, or on -Dasteroids.batchThreads platform threads when set.
+public class BatchSimulator {
+    private static final Logger logger = LogManager.getLogger(BatchSimulator.class);
+
+    private static final double STAGE_WIDTH = 800;
+    private static final double STAGE_HEIGHT = 600;
+
+    // Drives one world's player; called before every tick
+    public enum Pilot {
+        // Fires constantly while sweeping the aim in a circle, never moves
+        SCRIPTED {
+            @Override
+            void control(GameWorld world, GameRandom random, long tick) {
+                aimAt(world, Math.toRadians(tick * 3.0));
+                world.fireProjectile();
+            }
+        },
+        // Aims at the nearest threat, backs away from it up close and nukes when cornered
+        AI {
+            @Override
+            void control(GameWorld world, GameRandom random, long tick) {
+                Player player = world.getPlayer();
+                AllObject target = nearest(world, player);
+                if (target == null) {
+                    player.setMovingBackward(false);
+                    return;
+                }
+                double distance = Math.sqrt(distanceSquared(target, player));
+                world.rotatePlayerToCursor(target.getX() + target.getWidth() / 2, target.getY() + target.getHeight() / 2);
+                world.fireProjectile();
+                player.setMovingBackward(distance < 150);
+                if (distance < 60 && player.canUseNuke()) {
+                    world.activateNuke();
+                }
+            }
+        },
+        // Holds random movement keys for half a second at a time and fires half the time
+        RANDOM {
+            @Override
+            void control(GameWorld world, GameRandom random, long tick) {
+                Player player = world.getPlayer();
+                if (tick % 30 == 0) {
+                    player.setMovingForward(random.nextBoolean());
+                    player.setMovingLeft(random.nextDouble() < 0.25);
+                    player.setMovingRight(random.nextDouble() < 0.25);
+                    aimAt(world, random.nextDouble() * Math.PI * 2);
+                }
+                if (random.nextBoolean()) {
+                    world.fireProjectile();
+                }
+            }
+        };
+
+        abstract void control(GameWorld world, GameRandom random, long tick);
+
+        private static void aimAt(GameWorld world, double angleRad) {
+            Player player = world.getPlayer();
+            world.rotatePlayerToCursor(player.getX() + Math.cos(angleRad) * 100,
+                    player.getY() + Math.sin(angleRad) * 100);
+        }
+
+        private static AllObject nearest(GameWorld world, Player player) {
+            AllObject nearest = closer(world.getAsteroids(), player, null);
+            nearest = closer(world.getEnemies(), player, nearest);
+            return closer(world.getBosses(), player, nearest);
+        }
+
+        private static AllObject closer(List<? extends AllObject> targets, Player player, AllObject best) {
+            double shortest = best == null ? Double.MAX_VALUE : distanceSquared(best, player);
+            for (AllObject target : targets) {
+                double distance = distanceSquared(target, player);
+                if (distance < shortest) {
+                    shortest = distance;
+                    best = target;
+                }
+            }
+            return best;
+        }
+
+        // Targets are anchored at their top-left, the player at its centre
+        private static double distanceSquared(AllObject target, Player player) {
+            double dx = target.getX() + target.getWidth() / 2 - player.getX();
+            double dy = target.getY() + target.getHeight() / 2 - player.getY();
+            return dx * dx + dy * dy;
+        }
+    }
+
+    // Outcome of one world; tickTimes is its TICK histogram
+    public record Result(int index, long seed, int score, int bestCombo, long ticks, boolean died,
+                         int peakEntities, double meanEntities, LatencyHistogram tickTimes, long wallNanos) {
+    }
+
+    private final Pilot pilot;
+    private final long maxTicks;
+    private final double dt;
+
+    public BatchSimulator(Pilot pilot, long maxTicks, double dt) {
+        this.pilot = pilot;
+        this.maxTicks = maxTicks;
+        this.dt = dt;
+    }
+
+    // Runs worlds games concurrently; threads 0 uses a virtual thread per world
+    public List<Result> run(int worlds, long baseSeed, int threads) {
+        GameRandom seeds = new GameRandom(baseSeed);
+        List<Future<Result>> futures = new ArrayList<>(worlds);
+        List<Result> results = new ArrayList<>(worlds);
+        try (ExecutorService executor = threads > 0
+                ? Executors.newFixedThreadPool(threads)
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < worlds; i++) {
+                int index = i;
+                long seed = seeds.nextLong();
+                futures.add(executor.submit(() -> simulate(index, seed)));
+            }
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.error("Simulated world failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Batch interrupted after {} of {} worlds", results.size(), worlds);
+        }
+        return results;
+    }
+
+    private Result simulate(int index, long seed) {
+        long start = System.nanoTime();
+        GameWorld world = new GameWorld(STAGE_WIDTH, STAGE_HEIGHT, seed,
+                new ParallelUpdate(1, ParallelUpdate.DEFAULT_CHUNK_SIZE));
+        // The pilot draws from its own stream so it doesn't shift the world's spawns
+        GameRandom pilotRandom = new GameRandom(~seed);
+        world.startNewGame();
+
+        long tick = 0;
+        while (tick < maxTicks && world.getState() == GameState.PLAYGROUND) {
+            pilot.control(world, pilotRandom, tick);
+            world.step(dt);
+            tick++;
+        }
+
+        TickProfiler profiler = world.getProfiler();
+        return new Result(index, seed, world.getScoring().getCurrentScore(), world.getScoring().getBestCombo(),
+                tick, world.getState() == GameState.GAME_OVER, profiler.getPeakEntities(),
+                profiler.getMeanEntities(), profiler.getHistogram(TickProfiler.Phase.TICK),
+                System.nanoTime() - start);
+    }
+
+    public void report(List<Result> results, double wallSeconds, Path csv) {
+        if (results.isEmpty()) {
+            logger.warn("No results to report");
+            return;
+        }
+        int count = results.size();
+        int[] scores = new int[count];
+        double[] survival = new double[count];
+        LatencyHistogram ticks = new LatencyHistogram();
+        long totalTicks = 0;
+        int deaths = 0;
+        int peakEntities = 0;
+        double peakTotal = 0;
+        for (int i = 0; i < count; i++) {
+            Result result = results.get(i);
+            scores[i] = result.score();
+            survival[i] = result.ticks() * dt;
+            ticks.add(result.tickTimes());
+            totalTicks += result.ticks();
+            if (result.died()) deaths++;
+            peakEntities = Math.max(peakEntities, result.peakEntities());
+            peakTotal += result.peakEntities();
+        }
+        Arrays.sort(scores);
+        Arrays.sort(survival);
+
+        logger.info("Batch of {} worlds ({} pilot): {} died, {} survived the {} s limit", count, pilot,
+                deaths, count - deaths, String.format("%.0f", maxTicks * dt));
+        logger.info("Score: mean {}, p50 {}, p90 {}, max {}", String.format("%.1f", Arrays.stream(scores).average().orElse(0)),
+                scores[count / 2], scores[Math.min(count - 1, count * 9 / 10)], scores[count - 1]);
+        logger.info("Survival: mean {} s, p50 {} s, min {} s", String.format("%.1f", Arrays.stream(survival).average().orElse(0)),
+                String.format("%.1f", survival[count / 2]), String.format("%.1f", survival[0]));
+        logger.info("Entities: peak {}, mean peak {}", peakEntities, String.format("%.1f", peakTotal / count));
+        logger.info("Tick time: p50 {} us, p99 {} us, p99.9 {} us, max {} us",
+                micros(ticks.percentile(0.50)), micros(ticks.percentile(0.99)),
+                micros(ticks.percentile(0.999)), micros(ticks.getMax()));
+        logger.info("Throughput: {} ticks in {} s, {} ticks/s", totalTicks, String.format("%.2f", wallSeconds),
+                String.format("%.0f", totalTicks / wallSeconds));
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+            out.println("world,seed,score,best_combo,survival_s,died,peak_entities,mean_entities,tick_p50_us,tick_p99_us,tick_max_us");
+            for (Result result : results) {
+                LatencyHistogram h = result.tickTimes();
+                out.printf(Locale.ROOT, "%d,%d,%d,%d,%.2f,%b,%d,%.1f,%.1f,%.1f,%.1f%n", result.index(), result.seed(),
+                        result.score(), result.bestCombo(), result.ticks() * dt, result.died(), result.peakEntities(),
+                        result.meanEntities(), h.percentile(0.50) / 1000.0, h.percentile(0.99) / 1000.0,
+                        h.getMax() / 1000.0);
+            }
+            logger.info("Batch report written to {}", csv.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to write batch report to {}", csv, e);
+        }
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    public static void main(String[] args) {
+        int worlds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        double maxSeconds = args.length > 1 ? Double.parseDouble(args[1]) : 300;
+        Pilot pilot = args.length > 2 ? Pilot.valueOf(args[2].toUpperCase(Locale.ROOT)) : Pilot.AI;
+        long baseSeed = args.length > 3 ? Long.parseLong(args[3]) : GameRandom.randomSeed();
+        Path csv = Path.of(args.length > 4 ? args[4] : "batch-report.csv");
+        int threads = Integer.getInteger("asteroids.batchThreads", 0);
+
+        Headless.enable();
+        double dt = FixedStepLoop.DEFAULT_STEP;
+        BatchSimulator simulator = new BatchSimulator(pilot, (long) (maxSeconds / dt), dt);
+        logger.info("Simulating {} worlds with base seed {} on {}", worlds, baseSeed,
+                threads > 0 ? threads + " threads" : "virtual threads");
+
+        long start = System.nanoTime();
+        List<Result> results = simulator.run(worlds, baseSeed, threads);
+        simulator.report(results, (System.nanoTime() - start) / 1_000_000_000.0, csv);
+    }
+}
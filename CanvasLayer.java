@@ -0,0 +1,57 @@
+package se233.Asteroids_Project.view;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+// One canvas in GameStage's stack. The policy decides when beginFrame() clears it for a
+// full repaint; layers that manage partial updates themselves simply never call it.
+public class CanvasLayer {
+    public enum Policy {
+        STATIC,       // painted once, repainted only after invalidate()
+        ON_DEMAND,    // repainted on frames where invalidate() was called
+        EVERY_FRAME   // cleared and repainted every frame
+    }
+
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final Policy policy;
+    private boolean dirty = true;
+
+    public CanvasLayer(double width, double height, Policy policy) {
+        this.canvas = new Canvas(width, height);
+        this.gc = canvas.getGraphicsContext2D();
+        this.policy = policy;
+        // Layers never take input; events go to the stage
+        canvas.setMouseTransparent(true);
+    }
+
+    public void invalidate() {
+        dirty = true;
+    }
+
+    // Clears the layer and returns true when it should be repainted this frame
+    public boolean beginFrame() {
+        if (policy != Policy.EVERY_FRAME && !dirty) {
+            return false;
+        }
+        clear();
+        dirty = false;
+        return true;
+    }
+
+    public void clear() {
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    public GraphicsContext getGraphicsContext() {
+        return gc;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,34 @@
+package se233.Asteroids_Project.model;
+
+import javafx.scene.image.Image;
+
+// The drawing state AllObject keeps in protected fields, for renderers outside the model that
+// copy it into a snapshot instead of asking the object to draw itself. Position and size have
+// public getters on AllObject already.
+public final class DrawState {
+    private DrawState() {
+    }
+
+    // Null in headless mode
+    public static Image getSpriteSheet(AllObject object) {
+        return object.spriteSheet;
+    }
+
+    // Degrees, about the centre of the object's box
+    public static double getRotation(AllObject object) {
+        return object.rotation;
+    }
+
+    public static int getFrame(AllObject object) {
+        return object.currentFrame;
+    }
+
+    // 0 when the object isn't animated and draws its whole sheet
+    public static double getFrameWidth(AllObject object) {
+        return object.frameWidth;
+    }
+
+    public static double getFrameHeight(AllObject object) {
+        return object.frameHeight;
+    }
+}
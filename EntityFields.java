@@ -0,0 +1,103 @@
+package se233.Asteroids_Project.model;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Saves the state of entities that don't implement Persistent: every non-static, non-final
+// primitive field of the class and its superclasses, superclass first and by name within a
+// class. Velocity, hit points and cooldowns come back without the entity classes knowing about
+// saves; references (the player a minion chases, sprites) are left to the constructor. A hash of
+// the field layout goes first, so a save from a different version of the class is rejected.
+final class EntityFields {
+    private record Layout(Field[] fields, int hash) {
+    }
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return layout(type);
+        }
+    };
+
+    private EntityFields() {
+    }
+
+    // 4 bytes of layout hash, then 8 per field
+    static void write(Object entity, ByteBuffer out) {
+        Layout layout = LAYOUTS.get(entity.getClass());
+        out.putInt(layout.hash());
+        try {
+            for (Field field : layout.fields()) {
+                out.putLong(get(field, entity));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot save " + entity.getClass().getSimpleName(), e);
+        }
+    }
+
+    static void read(Object entity, ByteBuffer in) {
+        Layout layout = LAYOUTS.get(entity.getClass());
+        int hash = in.getInt();
+        if (hash != layout.hash()) {
+            throw new IllegalArgumentException("Saved " + entity.getClass().getSimpleName()
+                    + " fields don't match this version of the class");
+        }
+        try {
+            for (Field field : layout.fields()) {
+                set(field, entity, in.getLong());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot restore " + entity.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static Layout layout(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        List<Field> fields = new ArrayList<>();
+        int hash = 1;
+        for (Class<?> c : hierarchy) {
+            List<Field> declared = new ArrayList<>();
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (field.getType().isPrimitive() && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                    declared.add(field);
+                }
+            }
+            declared.sort(Comparator.comparing(Field::getName));
+            for (Field field : declared) {
+                field.setAccessible(true);
+                fields.add(field);
+                hash = 31 * hash + (c.getName() + '.' + field.getName() + ':' + field.getType()).hashCode();
+            }
+        }
+        return new Layout(fields.toArray(new Field[0]), hash);
+    }
+
+    private static long get(Field field, Object entity) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        if (type == double.class) return Double.doubleToRawLongBits(field.getDouble(entity));
+        if (type == float.class) return Float.floatToRawIntBits(field.getFloat(entity));
+        if (type == boolean.class) return field.getBoolean(entity) ? 1 : 0;
+        if (type == char.class) return field.getChar(entity);
+        return field.getLong(entity);  // Widens byte, short, int and long
+    }
+
+    private static void set(Field field, Object entity, long bits) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        if (type == double.class) field.setDouble(entity, Double.longBitsToDouble(bits));
+        else if (type == float.class) field.setFloat(entity, Float.intBitsToFloat((int) bits));
+        else if (type == boolean.class) field.setBoolean(entity, bits != 0);
+        else if (type == char.class) field.setChar(entity, (char) bits);
+        else if (type == byte.class) field.setByte(entity, (byte) bits);
+        else if (type == short.class) field.setShort(entity, (short) bits);
+        else if (type == int.class) field.setInt(entity, (int) bits);
+        else field.setLong(entity, bits);
+    }
+}
@@ -0,0 +1,74 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.Effect.ExplosionEffect;
+import se233.Asteroids_Project.model.Effect.NukeExplosion;
+
+import java.util.List;
+
+// Typed pools for the short-lived effects the game loop creates every few frames.
+// Each acquire* re-initialises a pooled instance through its reset(...) method, or falls
+// back to the constructor when the pool is empty. Projectiles live in ProjectileStore.
+public class EntityPools {
+    private static final Logger logger = LogManager.getLogger(EntityPools.class);
+
+    public static final int DEFAULT_EFFECT_CAPACITY = 64;
+
+    private final ObjectPool<ExplosionEffect> explosionEffects;
+    private final ObjectPool<NukeExplosion> nukeExplosions;
+
+    public EntityPools() {
+        this(DEFAULT_EFFECT_CAPACITY);
+    }
+
+    public EntityPools(int effectCapacity) {
+        explosionEffects = new ObjectPool<>("ExplosionEffect", effectCapacity);
+        nukeExplosions = new ObjectPool<>("NukeExplosion", effectCapacity);
+    }
+
+    public ExplosionEffect acquireExplosion(double x, double y) {
+        ExplosionEffect effect = explosionEffects.acquire();
+        if (effect == null) {
+            return new ExplosionEffect(x, y);
+        }
+        effect.reset(x, y);
+        return effect;
+    }
+
+    public NukeExplosion acquireNukeExplosion(double x, double y) {
+        NukeExplosion effect = nukeExplosions.acquire();
+        if (effect == null) {
+            return new NukeExplosion(x, y);
+        }
+        effect.reset(x, y);
+        return effect;
+    }
+
+    public void release(ExplosionEffect effect) {
+        explosionEffects.release(effect);
+    }
+
+    public void release(NukeExplosion effect) {
+        nukeExplosions.release(effect);
+    }
+
+    // Return every element of a list that is about to be cleared
+    public <T> void releaseAll(List<T> objects, ObjectPool<T> pool) {
+        for (T object : objects) {
+            pool.release(object);
+        }
+    }
+
+    public ObjectPool<ExplosionEffect> getExplosionPool() {
+        return explosionEffects;
+    }
+
+    public ObjectPool<NukeExplosion> getNukeExplosionPool() {
+        return nukeExplosions;
+    }
+
+    public void logStatistics() {
+        logger.info("Pool statistics: {}, {}", explosionEffects, nukeExplosions);
+    }
+}
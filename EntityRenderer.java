@@ -0,0 +1,149 @@
+package se233.Asteroids_Project.view;
+
+import javafx.scene.image.Image;
+import se233.Asteroids_Project.model.AllObject;
+import se233.Asteroids_Project.model.DrawState;
+import se233.Asteroids_Project.model.World;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Turns the World's asteroids, minions, bosses and effects into draw commands from the state
+// AllObject keeps (sprite sheet, animation frame, position, rotation), so the FX thread never
+// has to ask them to draw themselves. Where each object was at the previous capture is
+// remembered here, so its motion over the last tick is interpolated like the player's. One
+// instance is shared by every snapshot of a World and used only by the thread capturing them.
+public class EntityRenderer {
+    // One list's objects and poses at the previous capture, in list order
+    private static final class Track {
+        private Object[] objects = new Object[64];
+        private double[] x = new double[64];
+        private double[] y = new double[64];
+        private double[] rotation = new double[64];
+        private int size;
+
+        // Filled during a capture and swapped in at the end of it
+        private Object[] nextObjects = new Object[64];
+        private double[] nextX = new double[64];
+        private double[] nextY = new double[64];
+        private double[] nextRotation = new double[64];
+
+        // Lists only remove in place and append, so survivors keep their order: search on
+        // from the last match
+        int find(Object object, int from) {
+            for (int i = from; i < size; i++) {
+                if (objects[i] == object) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void record(int i, Object object, double objectX, double objectY, double objectRotation) {
+            if (i == nextObjects.length) {
+                int capacity = i * 2;
+                nextObjects = Arrays.copyOf(nextObjects, capacity);
+                nextX = Arrays.copyOf(nextX, capacity);
+                nextY = Arrays.copyOf(nextY, capacity);
+                nextRotation = Arrays.copyOf(nextRotation, capacity);
+            }
+            nextObjects[i] = object;
+            nextX[i] = objectX;
+            nextY[i] = objectY;
+            nextRotation[i] = objectRotation;
+        }
+
+        void swap(int newSize) {
+            // Don't keep removed objects alive
+            Arrays.fill(objects, 0, size, null);
+            Object[] o = objects;
+            objects = nextObjects;
+            nextObjects = o;
+            double[] d = x;
+            x = nextX;
+            nextX = d;
+            d = y;
+            y = nextY;
+            nextY = d;
+            d = rotation;
+            rotation = nextRotation;
+            nextRotation = d;
+            size = newSize;
+        }
+    }
+
+    private final Track asteroids = new Track();
+    private final Track minions = new Track();
+    private final Track bosses = new Track();
+
+    // Submits the entities into queue where they are now and into start where they were at the
+    // previous capture, in the same order, for RenderQueue.setStart()
+    public void submitEntities(World world, RenderQueue queue, RenderQueue start) {
+        submit(world, world.getAsteroids(), asteroids, queue, start);
+        submit(world, world.getEnemies(), minions, queue, start);
+        submit(world, world.getBosses(), bosses, queue, start);
+    }
+
+    // Explosions stay where they went off, so only their current frame is drawn
+    public void submitEffects(World world, RenderQueue queue) {
+        for (AllObject effect : world.getExplosionEffects()) {
+            submitFrame(effect, RenderQueue.LAYER_EFFECTS, queue, effect.getX(), effect.getY(),
+                    DrawState.getRotation(effect));
+        }
+        for (AllObject effect : world.getNukeExplosions()) {
+            submitFrame(effect, RenderQueue.LAYER_EFFECTS, queue, effect.getX(), effect.getY(),
+                    DrawState.getRotation(effect));
+        }
+    }
+
+    private static void submit(World world, List<? extends AllObject> objects, Track track,
+                               RenderQueue queue, RenderQueue start) {
+        int from = 0;
+        int count = objects.size();
+        for (int i = 0; i < count; i++) {
+            AllObject object = objects.get(i);
+            double x = object.getX();
+            double y = object.getY();
+            double rotation = DrawState.getRotation(object);
+            track.record(i, object, x, y, rotation);
+
+            double startX = x;
+            double startY = y;
+            double startRotation = rotation;
+            int previous = track.find(object, from);
+            if (previous >= 0) {
+                from = previous + 1;
+                // Snap instead of sliding across the screen when it wrapped around
+                if (Math.abs(x - track.x[previous]) < world.getWidth() / 2
+                        && Math.abs(y - track.y[previous]) < world.getHeight() / 2) {
+                    startX = track.x[previous];
+                    startY = track.y[previous];
+                    startRotation = track.rotation[previous];
+                }
+            }
+
+            submitFrame(object, RenderQueue.LAYER_ENTITIES, queue, x, y, rotation);
+            submitFrame(object, RenderQueue.LAYER_ENTITIES, start, startX, startY, startRotation);
+        }
+        track.swap(count);
+    }
+
+    // The object's current frame in its box at (x, y); frames are laid out left to right, top
+    // to bottom, like SpriteAtlas
+    private static void submitFrame(AllObject object, int layer, RenderQueue queue,
+                                    double x, double y, double rotation) {
+        Image sheet = DrawState.getSpriteSheet(object);
+        if (sheet == null) return;
+        double frameWidth = DrawState.getFrameWidth(object);
+        double frameHeight = DrawState.getFrameHeight(object);
+        if (frameWidth <= 0 || frameHeight <= 0) {
+            frameWidth = sheet.getWidth();
+            frameHeight = sheet.getHeight();
+        }
+        int columns = Math.max(1, (int) (sheet.getWidth() / frameWidth));
+        int frameCount = columns * Math.max(1, (int) (sheet.getHeight() / frameHeight));
+        int frame = Math.floorMod(DrawState.getFrame(object), frameCount);
+        queue.submit(layer, sheet, (frame % columns) * frameWidth, (frame / columns) * frameHeight,
+                frameWidth, frameHeight, x, y, object.getWidth(), object.getHeight(), rotation, 1.0);
+    }
+}
@@ -0,0 +1,72 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.animation.AnimationTimer;
+
+// Accumulator-based game loop: the simulation always advances in fixed steps while
+// rendering runs once per display pulse with an interpolation factor in [0, 1].
+public class FixedStepLoop extends AnimationTimer {
+
+    public interface Simulation {
+        void step(double dt);
+        void render(double alpha);
+    }
+
+    public static final double DEFAULT_STEP = 1.0 / 60.0;
+
+    // Frames longer than this (debugger pause, window drag) are clamped so we
+    // don't try to catch up seconds of simulation in one pulse
+    private static final double MAX_FRAME_TIME = 0.25;
+    private static final int MAX_STEPS_PER_FRAME = 8;
+
+    private final Simulation simulation;
+    private final double step;
+
+    private long lastTime = 0;
+    private double accumulator = 0;
+
+    public FixedStepLoop(Simulation simulation) {
+        this(simulation, DEFAULT_STEP);
+    }
+
+    public FixedStepLoop(Simulation simulation, double step) {
+        this.simulation = simulation;
+        this.step = step;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastTime == 0) {
+            lastTime = now;
+            simulation.render(1.0);
+            return;
+        }
+
+        double frameTime = (now - lastTime) / 1_000_000_000.0;
+        lastTime = now;
+        accumulator += Math.min(frameTime, MAX_FRAME_TIME);
+
+        int steps = 0;
+        while (accumulator >= step && steps < MAX_STEPS_PER_FRAME) {
+            simulation.step(step);
+            accumulator -= step;
+            steps++;
+        }
+        // Still behind after the cap: drop the backlog instead of spiralling
+        if (steps == MAX_STEPS_PER_FRAME && accumulator >= step) {
+            accumulator %= step;
+        }
+
+        simulation.render(accumulator / step);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        lastTime = 0;
+        accumulator = 0;
+    }
+
+    public double getStep() {
+        return step;
+    }
+}
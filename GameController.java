@@ -3,940 +3,432 @@ package se233.Asteroids_Project.controller;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
 import se233.Asteroids_Project.model.*;
-import se233.Asteroids_Project.model.Asset.BossProjectile;
-import se233.Asteroids_Project.model.Asset.MinionProjectile;
-import se233.Asteroids_Project.model.Asset.PlayerProjectile;
-import se233.Asteroids_Project.model.Effect.NukeExplosion;
-import se233.Asteroids_Project.model.Effect.ExplosionEffect;
-import se233.Asteroids_Project.model.Entities.Asteroids;
-import se233.Asteroids_Project.model.Entities.Boss;
-import se233.Asteroids_Project.model.Entities.Minion;
-import se233.Asteroids_Project.model.Entities.Player;
+import se233.Asteroids_Project.view.CanvasLayer;
+import se233.Asteroids_Project.view.EntityRenderer;
 import se233.Asteroids_Project.view.GameStage;
+import se233.Asteroids_Project.view.HudLayer;
+import se233.Asteroids_Project.view.ProfilerOverlay;
+import se233.Asteroids_Project.view.ProjectileRenderer;
+import se233.Asteroids_Project.view.RotatedSpriteCache;
+import se233.Asteroids_Project.view.WorldSnapshot;
+import se233.asteroidgame.model.KeyBindings;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Optional;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
+// Drives a World and renders snapshots of it. Input is recorded into an InputQueue and
+// applied at the start of each tick. By default the world steps on its own
+// SimulationThread; with -Dasteroids.simThread=false it steps on
+// the JavaFX pulse through a FixedStepLoop instead.
 public class GameController {
     private static final Logger logger = LogManager.getLogger(GameController.class);
 
+    private static final boolean SIMULATION_THREAD =
+            Boolean.parseBoolean(System.getProperty("asteroids.simThread", "true"));
+
     private GameStage gameStage;
     private AnimationTimer gameLoop;
     private boolean isRunning;
-    private Image lifeIcon;
-
-    // Game objects
-    private Player player;
-    private List<Asteroids> asteroids;
-    private List<Minion> enemies;
-    private List<Boss> boss;
-    private List<PlayerProjectile> playerProjectiles;
-    private List<MinionProjectile> minionProjectiles;
-    private List<BossProjectile> bossProjectiles;
-    private List<ExplosionEffect> explosionEffects;
-    private List<NukeExplosion> nukeExplosions;
-
-    // Game state
-    private GameState gameState = GameState.MAIN_MENU;
-    private int level;
-    // private int score;
-    private double spawnTimer;
-    private static final double SPAWN_INTERVAL = 3.0;
-    private boolean bossSpawned = false;
-    private boolean enemySpawned = false;
-    private boolean scoreThresholdReached = false;
-    private boolean canRotate = false;
-
-    private static final int SPREAD_SHOT_COUNT = 5;
-    private static final double SPREAD_ANGLE = 60.0;
-    private int bossAttackPattern = 0;
-    private static final int PATTERN_SWITCH_INTERVAL = 300; // frames (about 5 seconds at 60 FPS)
-    private int patternTimer = 0;
 
-    // Menu animation
-    private double textAlpha = 1.0;
-    private double textAlphaChange = -0.02;
+    // Simulation state
+    private final World world;
+    private SimulationThread simulation;     // null when stepping on the FX thread
+    private WorldSnapshot localSnapshot;     // captured every frame when stepping on the FX thread
+    private long localSequence;
+    private long lastPulse;
 
-    // Bomb ability display
-    private static final Color NUKE_READY_COLOR = Color.LIGHTGREEN;
-    private static final Color NUKE_COOLDOWN_COLOR = Color.RED;
+    // Input recorded on the FX thread and applied at the start of the next tick
+    private final InputQueue input = new InputQueue(1024);
+    private final TickInput tickInput;
 
-    public GameController(GameStage gameStage) {
-        this.gameStage = gameStage;
-        this.isRunning = false;
-        this.lifeIcon = new Image(getClass().getResourceAsStream("/se233/Asteroids_Project/asset/player_ship.png"));
-        initializeGame();
-    }
-
-    private void initializeGame() {
-        // Create player at center of screen
-        double centerX = gameStage.getStageWidth() / 2;
-        double centerY = gameStage.getStageHeight() / 2;
-        player = new Player(centerX, centerY, gameStage.getStageWidth(), gameStage.getStageHeight());
-        logger.info("Player initialized at ({}, {})", centerX, centerY);
-
-        // Initialize game objects
-        asteroids = new ArrayList<>();
-        enemies = new ArrayList<>();
-        boss = new ArrayList<>();
-        explosionEffects = new ArrayList<>();
-        nukeExplosions = new ArrayList<>();
-        playerProjectiles = new ArrayList<>();
-        minionProjectiles = new ArrayList<>();
-        bossProjectiles = new ArrayList<>();
-
-        //     score = 0;
-        Scoring.resetScore(); // Reset the score at game start
-        spawnTimer = SPAWN_INTERVAL;
-
-        gameLoop = new AnimationTimer() {
-            private long lastUpdate = 0;
-
-            @Override
-            public void handle(long now) {
-                // Limit updates to ~60 FPS
-                if (lastUpdate == 0 || now - lastUpdate >= 16_666_666) {
-                    updateGame();
-                    renderGame();
-                    lastUpdate = now;
-                }
-            }
-        };
-
-        // Spawn initial objects for menu background
-        spawnAsteroids(3);
-        spawnEnemies(1);
-        spawnBoss();
-    }
+    // Records each game's input for replay when -Dasteroids.replayDir is set
+    private final ReplayRecorder recorder;
 
-    private void updateGame() {
-        switch (gameState) {
-            case MAIN_MENU:
-                updateMenu();
-                break;
-            case PLAYGROUND:
-                updatePlaying();
-                break;
-            case GAME_OVER:
-                updateGameOver();
-                break;
-        }
-    }
-    public void rotatePlayerToCursor(double mouseX, double mouseY) {
-        if (player != null && player.isAlive()) { // Ensure player is initialized and alive
-            player.rotateToCursor(mouseX, mouseY); // Update player rotation
-        }
-    }
-    public void handleMouseMoved(MouseEvent event) {
-        if(canRotate){
-            rotatePlayerToCursor(event.getX(), event.getY());
-        }
-    }
+    // Quick save (F5) and load (F8) of the whole world: -Dasteroids.savePath
+    private final WorldSave worldSave = new WorldSave();
+    private final Path savePath = Path.of(System.getProperty("asteroids.savePath", "quicksave.sav"));
 
-    private void updateMenu() {
-        // Update background objects
-        for (Asteroids asteroids : this.asteroids) {
-            asteroids.update();
-        }
-        for (Minion minion : enemies) {
-            minion.update();
-        }
-
-        // Update text fade effect
-        textAlpha += textAlphaChange;
-        if (textAlpha <= 0 || textAlpha >= 1) {
-            textAlphaChange *= -1;
-        }
-    }
-
-    private void updatePlaying() {
-        if (!player.isAlive()) {
-            gameState = GameState.GAME_OVER;
-            return;
-        }
-
-        // Update player
-        player.update();
-
-        // Update explosions
-        Iterator<ExplosionEffect> explosionIterator = explosionEffects.iterator();
-        while (explosionIterator.hasNext()) {
-            ExplosionEffect explosionEffect = explosionIterator.next();
-            explosionEffect.update();
-            if (explosionEffect.isFinished()) {
-                explosionIterator.remove();
-            }
-        }
-
-        // Update bomb explosions
-        Iterator<NukeExplosion> bombexplosionIterator = nukeExplosions.iterator();
-        while (bombexplosionIterator.hasNext()) {
-            NukeExplosion nukeExplosion = bombexplosionIterator.next();
-            nukeExplosion.update();
-            if (nukeExplosion.isFinished()) {
-                bombexplosionIterator.remove();
-            }
-        }
-
-        // Update projectiles and check collisions
-        updateProjectiles();
-
-        // Update asteroids
-        Iterator<Asteroids> asteroidIterator = asteroids.iterator();
-        while (asteroidIterator.hasNext()) {
-            Asteroids asteroids = asteroidIterator.next();
-            asteroids.update();
-            if (asteroids.isMarkedForDestruction()) {
-                asteroidIterator.remove();
-            }
-        }
-
-        // Update enemies
-        Iterator<Minion> enemyIterator = enemies.iterator();
-        while (enemyIterator.hasNext()) {
-            Minion minion = enemyIterator.next();
-            minion.update();
-
-            // Handle enemy shooting
-            if (minion.canShoot() && player.isAlive()) {
-                double angleToPlayer = minion.getAngleToPlayer();
-
-                // Calculate projectile spawn position
-                double spawnDistance = 20;
-                double angleRad = Math.toRadians(angleToPlayer);
-                double projectileX = minion.getX() + Math.cos(angleRad) * spawnDistance;
-                double projectileY = minion.getY() + Math.sin(angleRad) * spawnDistance;
-
-                MinionProjectile enemyprojectile = new MinionProjectile(
-                        projectileX, projectileY,
-                        angleToPlayer,
-                        gameStage.getStageWidth(),
-                        gameStage.getStageHeight()
-                );
-                minionProjectiles.add(enemyprojectile);
-                minion.resetShootCooldown();
-            }
-
-            if (minion.isMarkedForDestructionMinion()) {
-                enemyIterator.remove();
-            }
-        }
-
-        // Update Boss
-        Iterator<Boss> bossIterator = boss.iterator();
-        while (bossIterator.hasNext()) {
-            Boss boss = bossIterator.next();
-            boss.update();
-
-            // Handle Boss shooting
-            if (boss.canShoot() && player.isAlive()) {
-                double angleToPlayer = boss.getAngleToPlayer();
-
-                // Calculate projectile spawn position
-                double spawnDistance = 200;
-                double angleRad = Math.toRadians(angleToPlayer);
-                double projectileX = boss.getX() + (boss.getWidth() / 2) + Math.cos(angleRad) * spawnDistance;
-                double projectileY = boss.getY() + (boss.getHeight() / 2) + Math.sin(angleRad) * spawnDistance;
-
-                // Update pattern timer and switch patterns
-                patternTimer++;
-                if (patternTimer >= PATTERN_SWITCH_INTERVAL) {
-                    bossAttackPattern = (bossAttackPattern + 1) % 3; // Cycle through 3 patterns
-                    patternTimer = 0;
-                }
-
-                // Different attack patterns
-                switch (bossAttackPattern) {
-                    case 0: // Multi-shot pattern
-                        double centerX = boss.getX() + (boss.getWidth() / 2);
-                        double centerY = boss.getY() + (boss.getHeight() / 2);
-                        BossProjectile[] multiShots = BossProjectile.createMultiShotPattern(
-                                centerX, centerY,
-                                angleToPlayer,
-
-                                gameStage.getStageWidth(),
-                                gameStage.getStageHeight(),
-                                5,  // Number of bullets
-                                10.0 // Spacing between bullets
-                        );
-                        for (BossProjectile shot : multiShots) {
-                            bossProjectiles.add(shot);
-                        }
-                        break;
-
-//                    case 1: // Spiral pattern
-//                        BossProjectile spiralShot = new BossProjectile(
-//                                projectileX, projectileY,
-//                                angleToPlayer,
-//                                gameStage.getStageWidth(),
-//                                gameStage.getStageHeight(),
-//                                BossProjectile.ProjectilePattern.SPIRAL
-//                        );
-//                        bossProjectiles.add(spiralShot);
-//                        break;
-//
-//                    case 2: // Spread pattern
-//
-//
-//                        double center1X = boss.getX() + (boss.getWidth() / 2);
-//                        double center1Y = boss.getY() + (boss.getHeight() / 2);
-//                        BossProjectile[] spreadShots = BossProjectile.createSpreadPattern(
-//                                center1X, center1Y,
-//                                angleToPlayer,
-//                                gameStage.getStageWidth(),
-//                                gameStage.getStageHeight(),
-//                                SPREAD_SHOT_COUNT,
-//                                SPREAD_ANGLE
-//                        );
-//                        for (BossProjectile shot : spreadShots) {
-//                            bossProjectiles.add(shot);
-//                        }
-//                        break;
-                }
-                boss.resetShootCooldown();
-            }
+    // Durable leaderboard; null when it couldn't be opened
+    private final HighScoreStore highScores;
 
-            if (boss.isMarkedForDestructionBoss()) {
-                bossIterator.remove();
-            }
-        }
-
-        // Update enemy projectiles
-        updateMinionProjectiles();
-        updateBossProjectiles();
-
-        // Handle all collisions
-        Collisions.handleCollisions(player, asteroids, enemies, boss, playerProjectiles);
-
-        if (Scoring.getCurrentScore() >= 10 && !scoreThresholdReached) {
-            scoreThresholdReached = true;
-            logger.info("Score threshold reached! Boss can now spawn");
-        }
+    // Menu animation
+    private double textAlpha = 1.0;
+    private double textAlphaChange = -1.2; // alpha per second
+
+    // HUD and overlays
+    private final HudLayer hud;
+
+    // Pre-rotated sprite frames: -Dasteroids.rotationSteps (0 rotates with the transform instead)
+    private static final int ROTATION_STEPS = Integer.getInteger("asteroids.rotationSteps", 64);
+    private static final int ROTATION_CACHE_CAPACITY = Integer.getInteger("asteroids.rotationCacheSize", 1024);
+    private final RotatedSpriteCache rotationCache =
+            ROTATION_STEPS > 0 ? new RotatedSpriteCache(ROTATION_STEPS, ROTATION_CACHE_CAPACITY) : null;
+    private final ProjectileRenderer projectileRenderer = new ProjectileRenderer();
+    // Shared by every snapshot, so each capture can interpolate from the one before
+    private final EntityRenderer entityRenderer = new EntityRenderer();
+    private static final Color GAME_OVER_OVERLAY = new Color(0, 0, 0, 0.7);
+
+    // Phase timings, shown with F3 and written to -Dasteroids.profileCsv on exit
+    private final TickProfiler profiler;
+    private final ProfilerOverlay profilerOverlay;
+    private long lastFrameStart;
+
+    // Layer bookkeeping
+    private GameState renderedState;
+    private long renderedSequence = -1;
+    private double renderedAlpha = -1;
+    private boolean effectsVisible;
 
-        // Update spawn timer
-        spawnTimer -= 0.016;
-        if (spawnTimer <= 0) {
-            spawnAsteroids(1);
-            if (!bossSpawned) {
-                spawnEnemies(1);
+    public GameController(GameStage gameStage) {
+        this.gameStage = gameStage;
+        this.isRunning = false;
+        this.hud = new HudLayer(gameStage.getLayer(GameStage.Layer.HUD));
+        this.world = new GameWorld(gameStage.getStageWidth(), gameStage.getStageHeight());
+        this.profiler = world.getProfiler();
+        this.tickInput = new TickInput(world, KeyBindings.load());
+        this.recorder = new ReplayRecorder(tickInput, FixedStepLoop.DEFAULT_STEP,
+                System.getProperty("asteroids.replayDir"));
+        tickInput.setOnStart(this::startNewGame);
+        tickInput.setOnQuit(Platform::exit);
+        this.profilerOverlay = new ProfilerOverlay(gameStage.getLayer(GameStage.Layer.OVERLAY), profiler);
+        this.highScores = openHighScores();
+        if (world instanceof GameWorld gameWorld) {
+            gameWorld.setHighScoreStore(highScores);
+            // On for interactive play; wall-clock spawn deferral would make seeded and recorded
+            // games unreproducible
+            boolean wallClockBudget = Boolean.parseBoolean(System.getProperty("asteroids.wallClockSpawnBudget", "true"));
+            gameWorld.getSpawnDirector().setWallClockBudget(wallClockBudget
+                    && System.getProperty("asteroids.seed") == null && !recorder.isEnabled());
+        }
+        String profileCsv = System.getProperty("asteroids.profileCsv");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            runHoldingWorld(recorder::finish);
+            if (highScores != null) {
+                highScores.close();
             }
-
-            if (scoreThresholdReached) {
-                enemySpawned = true;
-                // Only spawn boss if none exists
-                spawnBoss();
+            if (profileCsv != null) {
+                profiler.exportCsv(Path.of(profileCsv));
             }
+        }, "shutdown-export"));
+        initializeGame();
+    }
 
-            if(Scoring.getCurrentScore() >= 20 ) {
-                enemySpawned = false;
-                spawnEnemies(1);
-            }
-            spawnTimer = SPAWN_INTERVAL;
+    // Leaderboard in -Dasteroids.scoreDir; without it high scores only last for the session
+    private static HighScoreStore openHighScores() {
+        Path directory = Path.of(System.getProperty("asteroids.scoreDir", "scores"));
+        try {
+            return HighScoreStore.open(directory);
+        } catch (IOException e) {
+            logger.error("Failed to open high scores in {}, they won't be kept", directory, e);
+            return null;
         }
-
     }
 
-    private void updateProjectiles() {
-        Iterator<PlayerProjectile> projectileIterator = playerProjectiles.iterator();
-        while (projectileIterator.hasNext()) {
-            PlayerProjectile playerProjectile = projectileIterator.next();
-            playerProjectile.update();
-
-            if (playerProjectile.isExpired()) {
-                projectileIterator.remove();
-                continue;
-            }
-
-            // Check collisions with asteroids
-            for (Asteroids asteroids : this.asteroids) {
-                if (Collisions.checkCollision(playerProjectile, asteroids)) {
-                    projectileIterator.remove();
-                    asteroids.takeDamage(1);
-                    explosionEffects.add(new ExplosionEffect(
-                            playerProjectile.getX(),
-                            playerProjectile.getY()
-                    ));
-                    if (asteroids.isMarkedForDestruction()) {
-                        handleAsteroidDestruction(asteroids);
+    private void initializeGame() {
+        // Simulation runs at a fixed 60 Hz regardless of display refresh rate
+        if (SIMULATION_THREAD) {
+            simulation = new SimulationThread(world, FixedStepLoop.DEFAULT_STEP,
+                    () -> new WorldSnapshot(rotationCache, projectileRenderer, entityRenderer), this::sampleInput);
+            gameLoop = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    double dt = lastPulse == 0 ? 0 : (now - lastPulse) / 1_000_000_000.0;
+                    lastPulse = now;
+                    WorldSnapshot snapshot = simulation.acquireLatest();
+                    if (snapshot.getState() != GameState.PLAYGROUND) {
+                        updateTextFade(Math.min(dt, 0.25));
                     }
-
-                    break;
+                    // Draw the last tick's motion over the time the next one takes to arrive
+                    double alpha = (System.nanoTime() - snapshot.getCapturedAt()) / (FixedStepLoop.DEFAULT_STEP * 1e9);
+                    renderGame(snapshot, Math.max(0, Math.min(1, alpha)));
                 }
-            }
-
-            // Check collisions with enemies
-            for (Minion minion : enemies) {
-                if (Collisions.checkCollision(playerProjectile, minion)) {
-                    projectileIterator.remove();
-                    // Instead of immediately destroying the enemy, damage it
-                    minion.takeDamage(1);
-                    // Create small explosion effect for hit feedback
-                    explosionEffects.add(new ExplosionEffect(
-                            playerProjectile.getX(),
-                            playerProjectile.getY()
-                    ));
-                    // Only award points and create big explosion if enemy is destroyed
-                    if (minion.isMarkedForDestructionMinion()) {
-                        handleMinionDestruction(minion);
-                    }
-                    break;
+            };
+        } else {
+            localSnapshot = new WorldSnapshot(rotationCache, projectileRenderer, entityRenderer);
+            localSnapshot.capture(world, localSequence);
+            gameLoop = new FixedStepLoop(new FixedStepLoop.Simulation() {
+                @Override
+                public void step(double dt) {
+                    updateGame(dt);
+                    localSequence++;
                 }
-            }
 
-            // Check collisions with boss
-            for (Boss boss1 : boss) {
-                if (Collisions.checkCollision(playerProjectile, boss1) ) {
-                    projectileIterator.remove();
-                    boss1.takeDamage(1);
-                    explosionEffects.add(new ExplosionEffect(
-                            playerProjectile.getX(),
-                            playerProjectile.getY()
-                    ));
-                    if (boss1.isMarkedForDestructionBoss()) {
-                        handleBossDestruction(boss1);
+                @Override
+                public void render(double alpha) {
+                    if (localSnapshot.getSequence() != localSequence) {
+                        long start = profiler.start();
+                        localSnapshot.capture(world, localSequence);
+                        profiler.lap(TickProfiler.Phase.SNAPSHOT, start);
                     }
-                    break;
+                    renderGame(localSnapshot, alpha);
                 }
-
-
-            }
+            });
         }
     }
 
-    private void updateMinionProjectiles() {
-        Iterator<MinionProjectile> projectileIterator = minionProjectiles.iterator();
-        while (projectileIterator.hasNext()) {
-            MinionProjectile minionProjectile = projectileIterator.next();
-            minionProjectile.update();
-
-            if (minionProjectile.isExpired()) {
-                projectileIterator.remove();
-                continue;
-            }
-
-            // Check collision with player
-            if (player.isAlive() && Collisions.checkCollision(minionProjectile, player)) {
-                projectileIterator.remove();
-                player.hit(); // Assuming Player class has a hit() method
-                continue;
-            }
+    private void updateGame(double dt) {
+        sampleInput();
+        world.step(dt);
+        if (world.getState() != GameState.PLAYGROUND) {
+            updateTextFade(dt);
         }
     }
 
-    private void updateBossProjectiles() {
-        Iterator<BossProjectile> projectileIterator = bossProjectiles.iterator();
-        while (projectileIterator.hasNext()) {
-            BossProjectile bossProjectile = projectileIterator.next();
-            bossProjectile.update();
-
-            if (bossProjectile.isExpired()) {
-                projectileIterator.remove();
-                continue;
-            }
-
-            // Check collision with player
-            if (player.isAlive() && Collisions.checkCollision(bossProjectile, player)) {
-                projectileIterator.remove();
-                player.hit(); // Assuming Player class has a hit() method
-                continue;
-            }
-        }
-    }
-
-    private void updateGameOver() {
-        textAlpha += textAlphaChange;
+    private void updateTextFade(double dt) {
+        textAlpha += textAlphaChange * dt;
         if (textAlpha <= 0 || textAlpha >= 1) {
+            textAlpha = Math.max(0, Math.min(1, textAlpha));
             textAlphaChange *= -1;
         }
     }
 
-    private void renderGame() {
-        var gc = gameStage.getGraphicsContext();
-        gc.clearRect(0, 0, gameStage.getStageWidth(), gameStage.getStageHeight());
+    // alpha is how far to draw from the start of the snapshot's tick towards its end
+    private void renderGame(WorldSnapshot snapshot, double alpha) {
+        long frameStart = profiler.start();
+        double frameTime = lastFrameStart == 0 ? 0 : (frameStart - lastFrameStart) / 1_000_000_000.0;
+        lastFrameStart = frameStart;
+
+        CanvasLayer worldLayer = gameStage.getLayer(GameStage.Layer.WORLD);
+        CanvasLayer effectsLayer = gameStage.getLayer(GameStage.Layer.EFFECTS);
+        CanvasLayer hudLayer = gameStage.getLayer(GameStage.Layer.HUD);
+
+        // A new screen repaints every layer
+        GameState state = snapshot.getState();
+        boolean screenChanged = state != renderedState;
+        if (screenChanged) {
+            renderedState = state;
+            worldLayer.invalidate();
+            effectsLayer.invalidate();
+            // Game over keeps the final HUD underneath its overlay
+            if (state != GameState.GAME_OVER) {
+                hudLayer.clear();
+                hud.invalidate();
+            }
+        }
 
-        switch (gameState) {
+        // The world only moves while playing, when a new tick arrived or the interpolation moved
+        // on; the game over screen shows it frozen
+        boolean newTick = snapshot.getSequence() != renderedSequence;
+        if (state == GameState.PLAYGROUND && (newTick || alpha != renderedAlpha)) {
+            renderedAlpha = alpha;
+            worldLayer.invalidate();
+        }
+        if (state == GameState.PLAYGROUND && newTick) {
+            renderedSequence = snapshot.getSequence();
+            // Clear effects on the frame after the last one finished, then leave the layer alone
+            boolean hasEffects = snapshot.hasEffects();
+            if (hasEffects || effectsVisible) {
+                effectsLayer.invalidate();
+            }
+            effectsVisible = hasEffects;
+        }
+
+        switch (state) {
             case MAIN_MENU:
-                renderMenu(gc);
+                worldLayer.beginFrame();
+                effectsLayer.beginFrame();
+                renderMenu(hudLayer.getGraphicsContext(), screenChanged);
                 break;
             case PLAYGROUND:
-                renderPlaying(gc);
+                renderPlaying(worldLayer, effectsLayer, snapshot, alpha);
+                renderHUD(snapshot);
                 break;
             case GAME_OVER:
-                renderGameOver(gc);
+                renderPlaying(worldLayer, effectsLayer, snapshot, alpha);
+                renderGameOver(hudLayer.getGraphicsContext(), screenChanged, snapshot);
                 break;
         }
+
+        profilerOverlay.update(frameTime);
+        profiler.lap(TickProfiler.Phase.FRAME, frameStart);
     }
 
-    private void renderMenu(GraphicsContext gc) {
-        // Render background objects
-        // Draw title
-        gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 40));
+    private void renderMenu(GraphicsContext gc, boolean screenChanged) {
         double titleX = gameStage.getStageWidth() / 2;
-        double titleY = gameStage.getStageHeight() / 3;
+        double promptY = gameStage.getStageHeight() / 2;
         gc.setTextAlign(TextAlignment.CENTER);
-        gc.fillText("Asteroids Project", titleX, titleY);
-
-        // Draw blinking "PUSH SPACE TO START" text
-        gc.setGlobalAlpha(textAlpha);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-        gc.fillText("Press ENTER To Start", titleX, gameStage.getStageHeight() / 2);
-        gc.setGlobalAlpha(1.0);
-
-        // Draw controls info
-        gc.setFont(Font.font("Arial", 16));
-        double infoY = gameStage.getStageHeight() * 0.7;
-        gc.fillText("Controls:", titleX, infoY);
-        gc.fillText("WASD - Move", titleX, infoY + 25);
-        gc.fillText("LEFT/RIGHT - Rotate", titleX, infoY + 50);
-        gc.fillText("SPACE - Shoot", titleX, infoY + 75);
-        gc.fillText("E - Activate Nuke", titleX, infoY + 100);
-        gc.fillText("ESC - Quit", titleX, infoY + 125);
-    }
-
-    private void renderPlaying(GraphicsContext gc) {
-        // Render game objects
-        for (Asteroids asteroids : this.asteroids) {
-            asteroids.render(gc);
-        }
-        for (Minion minion : enemies) {
-            minion.render(gc);
-        }
-
-        for (Boss boss1 : boss) {
-            boss1.render(gc);
-        }
-
-        for (PlayerProjectile playerProjectile : playerProjectiles) {
-            playerProjectile.render(gc);
-        }
+        gc.setFill(Color.WHITE);
 
-        for (MinionProjectile minionProjectile : minionProjectiles) {
-            minionProjectile.render(gc);
-        }
+        if (screenChanged) {
+            // Draw title
+            gc.setFont(HudLayer.TITLE_FONT);
+            gc.fillText("Asteroids Project", titleX, gameStage.getStageHeight() / 3);
 
-        for (BossProjectile bossProjectile : bossProjectiles) {
-            bossProjectile.render(gc);
+            // Draw controls info
+            gc.setFont(HudLayer.INFO_FONT);
+            double infoY = gameStage.getStageHeight() * 0.7;
+            gc.fillText("Controls:", titleX, infoY);
+            gc.fillText("WASD - Move", titleX, infoY + 25);
+            gc.fillText("LEFT/RIGHT - Rotate", titleX, infoY + 50);
+            gc.fillText("SPACE - Shoot", titleX, infoY + 75);
+            gc.fillText("E - Activate Nuke", titleX, infoY + 100);
+            gc.fillText("ESC - Quit", titleX, infoY + 125);
         }
 
-        for (ExplosionEffect explosionEffect : explosionEffects) {
-            explosionEffect.render(gc);
-        }
+        // Draw blinking "PUSH SPACE TO START" text, the only part that changes per frame
+        gc.clearRect(0, promptY - 25, gameStage.getStageWidth(), 35);
+        gc.setGlobalAlpha(textAlpha);
+        gc.setFont(HudLayer.PROMPT_FONT);
+        gc.fillText("Press ENTER To Start", titleX, promptY);
+        gc.setGlobalAlpha(1.0);
+    }
 
-        for (NukeExplosion nukeExplosion : nukeExplosions) {
-            nukeExplosion.render(gc);
+    private void renderPlaying(CanvasLayer worldLayer, CanvasLayer effectsLayer, WorldSnapshot snapshot,
+                               double alpha) {
+        // Render game objects from the snapshot's draw commands, interpolated; the World
+        // itself is never touched here
+        long t = profiler.start();
+        if (worldLayer.beginFrame()) {
+            snapshot.getQueue().flush(worldLayer.getGraphicsContext(), alpha);
+            t = profiler.lap(TickProfiler.Phase.RENDER_WORLD, t);
         }
 
-        if (player.isAlive()) {
-            player.render(gc);
+        if (effectsLayer.beginFrame()) {
+            snapshot.getEffects().flush(effectsLayer.getGraphicsContext());
+            profiler.lap(TickProfiler.Phase.RENDER_EFFECTS, t);
         }
-
-        // Draw HUD
-        renderHUD(gc);
     }
 
-    private void renderHUD(GraphicsContext gc) {
-        // Draw score and lives
-        // Draw scores
-        gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", 20));
-        gc.setTextAlign(TextAlignment.LEFT);
-        gc.fillText("Score: " + Scoring.getCurrentScore(), 10, 30);
-
-        // Draw high score
-        if (Scoring.checkHighestScore()) {
-            gc.setFill(Color.GOLD); // Gold color for new high score
-        }
-        gc.fillText("Highest Score: " + Scoring.getHighestScore(), 10, 60);
-        // Draw combo if active
-        if (Scoring.getCombo() > 1) {
-            gc.setFill(Color.YELLOW);
-            gc.fillText("Combo x" + Scoring.getCombo(), 10, 90);
-        }
-        // Reset color for lives display
-        gc.setFill(Color.WHITE);
-        gc.fillText("Lives: ", 10, 120);
-
-        // Draw life icons
-        double iconSize = 30;
-        double baseX = 70;
-        double baseY = 105;
-        double spacing = 25;
-        for (int i = 0; i < player.getLives(); i++) {
-            gc.drawImage(lifeIcon, baseX + (i * spacing), baseY, iconSize, iconSize);
-        }
-
-        // Draw bomb status
-        double cooldown = player.getBombCooldown();
-        String nukeText = cooldown > 0
-                ? String.format("Nuke: %.1fs", cooldown)
-                : "Nuke: READY";
-
-        gc.setFill(cooldown > 0 ? NUKE_COOLDOWN_COLOR : NUKE_READY_COLOR);
-        gc.setFont(Font.font("Arial", 16));
-        gc.fillText(nukeText, 10, gameStage.getStageHeight() - 10);
+    private void renderHUD(WorldSnapshot snapshot) {
+        long start = profiler.start();
+        hud.update(snapshot);
+        profiler.lap(TickProfiler.Phase.RENDER_HUD, start);
     }
 
-    private void renderGameOver(GraphicsContext gc) {
-        // Render the final game state in background
-        renderPlaying(gc);
-
-        // Draw semi-transparent overlay
-        gc.setFill(new Color(0, 0, 0, 0.7));
-        gc.fillRect(0, 0, gameStage.getStageWidth(), gameStage.getStageHeight());
-
-        // Draw game over text
-        gc.setFill(Color.WHITE);
-        gc.setFont(Font.font("Arial", FontWeight.BOLD, 40));
-        gc.setTextAlign(TextAlignment.CENTER);
-        double centerX = gameStage.getStageWidth() / 2;
+    private void renderGameOver(GraphicsContext gc, boolean screenChanged, WorldSnapshot snapshot) {
+        double width = gameStage.getStageWidth();
+        double centerX = width / 2;
         double centerY = gameStage.getStageHeight() / 2;
+        gc.setTextAlign(TextAlignment.CENTER);
 
-        gc.fillText("GAME OVER", centerX, centerY - 40);
-        gc.setFont(Font.font("Arial", 20));
-        gc.fillText("Final Score: " + Scoring.getCurrentScore(), centerX, centerY + 10);
+        if (screenChanged) {
+            // Draw semi-transparent overlay over the frozen play field
+            gc.setFill(GAME_OVER_OVERLAY);
+            gc.fillRect(0, 0, width, gameStage.getStageHeight());
+
+            // Draw game over text
+            gc.setFill(Color.WHITE);
+            gc.setFont(HudLayer.TITLE_FONT);
+            gc.fillText("GAME OVER", centerX, centerY - 40);
+            gc.setFont(HudLayer.HUD_FONT);
+            gc.fillText("Final Score: " + snapshot.getScore(), centerX, centerY + 10);
+        }
+
+        // Blinking prompts: restore the overlay under them, then draw at the current alpha
+        double bandTop = centerY + 30;
+        double bandHeight = 55;
+        gc.clearRect(0, bandTop, width, bandHeight);
+        gc.setFill(GAME_OVER_OVERLAY);
+        gc.fillRect(0, bandTop, width, bandHeight);
+        gc.setFill(Color.WHITE);
+        gc.setFont(HudLayer.HUD_FONT);
         gc.setGlobalAlpha(textAlpha);
         gc.fillText("Press ENTER to Play Again!", centerX, centerY + 50);
         gc.fillText("Press ESC toQuit", centerX, centerY + 75);
         gc.setGlobalAlpha(1.0);
     }
 
-    private void handleAsteroidDestruction(Asteroids asteroids) {
-        asteroids.markForDestruction();
-        Scoring.addPoints(asteroids.getPoints());
-        explosionEffects.add(new ExplosionEffect(
-                asteroids.getX() + asteroids.getWidth()/2,
-                asteroids.getY() + asteroids.getHeight()/2
-        ));
-        logger.info("Asteroid destroyed! Score: {}", Scoring.getCurrentScore());
-    }
-
-    private void handleMinionDestruction(Minion minion) {
-        minion.markForDestructionMinion();
-        Scoring.addPoints(minion.getPointsMinion());
-        explosionEffects.add(new ExplosionEffect(
-                minion.getX() + minion.getWidth()/2,
-                minion.getY() + minion.getHeight()/2
-        ));
-
-        logger.info("Enemy destroyed! Score: {}", Scoring.getCurrentScore());
-    }
-
-    private void handleNukeAsteroidDestruction(Asteroids asteroids) {
-        asteroids.markForDestruction();
-        Scoring.addPoints(asteroids.getPoints());
-        nukeExplosions.add(new NukeExplosion(
-                asteroids.getX() + asteroids.getWidth()/2,
-                asteroids.getY() + asteroids.getHeight()/2
-        ));
-        logger.info("Asteroid destroyed! Score: {}", Scoring.getCurrentScore());
-    }
-
-    private void handleNukeMinionDestruction(Minion minion) {
-        minion.markForDestructionMinion();
-        Scoring.addPoints(minion.getPointsMinion());
-        nukeExplosions.add(new NukeExplosion(
-                minion.getX() + minion.getWidth()/2,
-                minion.getY() + minion.getHeight()/2
-        ));
-
-        logger.info("Minion destroyed! Score: {}", Scoring.getCurrentScore());
-    }
-
-    private void handleBossDestruction(Boss boss) {
-
-        Scoring.addPoints(boss.getPointsBoss());
-        explosionEffects.add(new ExplosionEffect(
-                boss.getX() + boss.getWidth()/2,
-                boss.getY() + boss.getHeight()/2
-        ));
-        boss.markForDestructionBoss();
-        bossSpawned = true;
-        enemySpawned = false;
-        logger.info("Boss destroyed! Score: {}", Scoring.getCurrentScore());
-    }
-
-    private Optional<Asteroids> findNearestAsteroid() {
-        double shortestDistance = Double.MAX_VALUE;
-        Asteroids nearest = null;
-
-        for (Asteroids asteroids : this.asteroids) {
-            double dx = asteroids.getX() - player.getX();
-            double dy = asteroids.getY() - player.getY();
-            double distance = Math.sqrt(dx * dx + dy * dy);
-
-            if (distance < shortestDistance) {
-                shortestDistance = distance;
-                nearest = asteroids;
-            }
-        }
-
-        return Optional.ofNullable(nearest);
-    }
-
-    private Optional<Minion> findNearestMinion() {
-        double shortestDistance = Double.MAX_VALUE;
-        Minion nearest = null;
-
-        for (Minion minion : enemies) {
-            double dx = minion.getX() - player.getX();
-            double dy = minion.getY() - player.getY();
-            double distance = Math.sqrt(dx * dx + dy * dy);
-
-            if (distance < shortestDistance) {
-                shortestDistance = distance;
-                nearest = minion;
-            }
-        }
-
-        return Optional.ofNullable(nearest);
-    }
-
-    private void activateNuke() {
-        if (player.canUseNuke()) {
-            findNearestAsteroid().ifPresent(asteroids -> {
-                handleNukeAsteroidDestruction(asteroids);
-                player.useNuke();
-                logger.info("Nuke used on nearest asteroid");
-            });
-
-            findNearestMinion().ifPresent(minion -> {
-
-                handleNukeMinionDestruction(minion);
-                player.useNuke();
-                logger.info("Nuke used on nearest enemy");
-            });
+    private void startNewGame() {
+        if (rotationCache != null) {
+            rotationCache.logStatistics();
         }
+        // Recording starts from the RNG state the new game is spawned with
+        recorder.begin(world);
+        world.startNewGame();
     }
 
     public void handleKeyPress(KeyCode code) {
-        switch (gameState) {
-            case MAIN_MENU:
-                if (code == KeyCode.ENTER) {
-                    startNewGame();
-                    gameState = GameState.PLAYGROUND;
-                }
-                if (code == KeyCode.ESCAPE) {
-                    Platform.exit();
-                }
-                break;
-            case PLAYGROUND:
-                handlePlayingKeyPress(code);
-                if (code == KeyCode.ESCAPE) {
-                    Platform.exit();
-                }
-                break;
-            case GAME_OVER:
-                if (code == KeyCode.ENTER) {
-                    startNewGame();
-                    gameState = GameState.PLAYGROUND;
-                }
-                if (code == KeyCode.ESCAPE) {
-                    Platform.exit();
-                }
-                break;
+        if (code == KeyCode.F9) {
+            GameLogging.toggleFrameLoggingQuiet();
+            return;
         }
-    }
-
-    public void handleMouseClick(MouseEvent event) {
-        fireProjectile();
-    }
-
-    private void handlePlayingKeyPress(KeyCode code) {
-        if (!player.isAlive()) return;
-
-        switch (code) {
-            case W:
-                player.setMovingForward(true);
-                break;
-            case S:
-                player.setMovingBackward(true);
-                break;
-            case A:
-                player.setMovingLeft(true);
-                break;
-            case D:
-                player.setMovingRight(true);
-                break;
-            case LEFT:
-                player.setRotatingLeft(true);
-                break;
-            case RIGHT:
-                player.setRotatingRight(true);
-                break;
-//            case SPACE:
-//                fireProjectile();
-//                break;
-            case E:
-                activateNuke();
-                break;
+        if (code == KeyCode.F3) {
+            profilerOverlay.toggle();
+            return;
         }
-    }
-
-    public void handleKeyRelease(KeyCode code) {
-        if (gameState != GameState.PLAYGROUND || !player.isAlive()) return;
-
-        switch (code) {
-            case W:
-                player.setMovingForward(false);
-                break;
-            case S:
-                player.setMovingBackward(false);
-                break;
-            case A:
-                player.setMovingLeft(false);
-                break;
-            case D:
-                player.setMovingRight(false);
-                break;
-            case LEFT:
-                player.setRotatingLeft(false);
-                break;
-            case RIGHT:
-                player.setRotatingRight(false);
-                break;
+        if (code == KeyCode.F5) {
+            runOnSimulation(this::saveWorld);
+            return;
         }
-    }
-    private void fireProjectile() {
-        if (player.canShoot()) {
-            // Calculate projectile spawn position (slightly in front of the ship)
-            double angleRad = Math.toRadians(player.getRotation());
-            double spawnDistance = 20;
-            double projectileX = player.getX() + Math.cos(angleRad) * spawnDistance;
-            double projectileY = player.getY() + Math.sin(angleRad) * spawnDistance;
-
-            PlayerProjectile playerProjectile = new PlayerProjectile(
-                    projectileX, projectileY,
-                    player.getRotation(),
-                    gameStage.getStageWidth(),
-                    gameStage.getStageHeight()
-            );
-            playerProjectiles.add(playerProjectile);
-            player.resetShootCooldown();
-            logger.debug("Projectile fired from ({}, {})", projectileX, projectileY);
+        if (code == KeyCode.F8) {
+            runOnSimulation(this::loadWorld);
+            return;
         }
+        input.keyPressed(code);
     }
 
-    private void startNewGame() {
-        // Reset game state
-        Scoring.resetScore();
-        level = 1;
-        spawnTimer = SPAWN_INTERVAL;
-        bossSpawned = false;
-        scoreThresholdReached = false;
-        enemySpawned = false;
-        canRotate = true;
-
-
-        // Clear existing objects
-        asteroids.clear();
-        playerProjectiles.clear();
-        minionProjectiles.clear();
-        bossProjectiles.clear();
-        explosionEffects.clear();
-        enemies.clear();
-        boss.clear();
-
-        // Reset player
-        double centerX = gameStage.getStageWidth() / 2;
-        double centerY = gameStage.getStageHeight() / 2;
-        player = new Player(centerX, centerY, gameStage.getStageWidth(), gameStage.getStageHeight());
-
-        // Spawn initial asteroids
-        spawnAsteroids(2);
-        spawnEnemies(1);
-
-        logger.info("New game started");
+    // Between ticks on whichever thread steps the world
+    private void runOnSimulation(Runnable command) {
+        if (simulation != null) {
+            simulation.post(command);
+        } else {
+            command.run();
+        }
     }
 
-    private void spawnAsteroids(int count) {
-        for (int i = 0; i < count; i++) {
-            double x, y;
-            if (Math.random() < 0.5) {
-                x = Math.random() < 0.5 ? -30 : gameStage.getStageWidth() + 30;
-                y = Math.random() * gameStage.getStageHeight();
-            } else {
-                x = Math.random() * gameStage.getStageWidth();
-                y = Math.random() < 0.5 ? -30 : gameStage.getStageHeight() + 30;
-            }
-
-            int asteroidSize = generateRandomAsteroidSize();
-            asteroids.add(new Asteroids(x, y, asteroidSize));
+    // Right away on the calling thread, with the simulation held between ticks. Not for
+    // rendering, which only reads snapshots.
+    private void runHoldingWorld(Consumer<World> action) {
+        if (simulation != null) {
+            simulation.withWorld(action);
+        } else {
+            action.accept(world);
         }
     }
-    private void spawnEnemies(int count) {
-        enemySpawned = false;
-        for (int i = 0; i < count; i++) {
-            double x, y;
-            if (Math.random() < 0.5) {
-                x = Math.random() < 0.5 ? -30 : gameStage.getStageWidth() + 30;
-                y = Math.random() * gameStage.getStageHeight();
-            } else {
-                x = Math.random() * gameStage.getStageWidth();
-                y = Math.random() < 0.5 ? -30 : gameStage.getStageHeight() + 30;
-            }
 
-            int EnemyType = generateRandomEnemy();
-            enemies.add(new Minion(x, y, EnemyType ,player));
+    private void saveWorld() {
+        try {
+            worldSave.save(world, savePath);
+        } catch (IOException e) {
+            logger.error("Failed to save world to {}", savePath, e);
         }
     }
 
-    private void spawnBoss() {
-
-        if (scoreThresholdReached && !bossSpawned && boss.isEmpty()) { // Double check both flags
-            //enemies.clear();
-            enemySpawned = true;
-
-
-            double x, y;
-            if (Math.random() < 0.5) {
-                x = Math.random() < 0.5 ? -30 : gameStage.getStageWidth() + 30;
-                y = Math.random() * gameStage.getStageHeight();
-            } else {
-                x = Math.random() * gameStage.getStageWidth();
-                y = Math.random() < 0.5 ? -30 : gameStage.getStageHeight() + 30;
-            }
-
-            int Boss = generateRandomBoss();
-            boss.add(new Boss(x, y, Boss, player));
-            bossSpawned = true;
+    private void loadWorld() {
+        // A replay can't start from a loaded world, so the current recording ends here
+        recorder.finish(world);
+        try {
+            worldSave.load(world, savePath);
+        } catch (IOException e) {
+            logger.error("Failed to load world from {}", savePath, e);
         }
+    }
 
+    // Runs at the start of every tick, on the simulation side: applies the queued events to
+    // the key table, then acts on the resulting state once
+    private void sampleInput() {
+        long start = profiler.start();
+        input.drain(recorder.isRecording() ? recorder : tickInput);
+        tickInput.apply();
+        recorder.endTick();
+        profiler.lap(TickProfiler.Phase.INPUT, start);
     }
 
-    private int generateRandomAsteroidSize() {
-        double random = Math.random();
-        if (random < 0.35) {
-            return 1; // 35% chance for size 1
-        } else if (random < 0.7) {
-            return 2; // 35% chance for size 2
-        } else {
-            return 3; // 30% chance for size 3
-        }
+    public void handleMouseMoved(MouseEvent event) {
+        input.mouseMoved(event.getX(), event.getY());
     }
 
-    private int generateRandomEnemy() {
-        return Math.random() < 0.6 ? 1 : 2;
+    public void handleMouseClick(MouseEvent event) {
+        input.mouseClicked(event.getX(), event.getY());
     }
 
-    private int generateRandomBoss() {
-        return 1;
+    public void handleKeyRelease(KeyCode code) {
+        input.keyReleased(code);
     }
 
     public void startGameLoop() {
         if (!isRunning) {
+            if (simulation != null) {
+                simulation.start();
+            }
             gameLoop.start();
             isRunning = true;
             logger.info("Game loop started");
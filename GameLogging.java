@@ -0,0 +1,46 @@
+package se233.Asteroids_Project.controller;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+
+// Runtime switch for the loggers that fire every frame or every kill. Quiet mode raises
+// them to WARN; leaving it restores the levels from log4j2.properties.
+public final class GameLogging {
+    private static final Logger logger = LogManager.getLogger(GameLogging.class);
+
+    private static final String[] FRAME_CATEGORIES = {
+            "se233.Asteroids_Project.model.Entities.Player",
+            "se233.Asteroids_Project.model.GameWorld",
+            "se233.Asteroids_Project.controller.GameController"
+    };
+
+    private static final Level[] configuredLevels = new Level[FRAME_CATEGORIES.length];
+    private static boolean quiet = false;
+
+    private GameLogging() {
+    }
+
+    public static synchronized void setFrameLoggingQuiet(boolean enabled) {
+        if (enabled == quiet) return;
+        for (int i = 0; i < FRAME_CATEGORIES.length; i++) {
+            if (enabled) {
+                configuredLevels[i] = LogManager.getLogger(FRAME_CATEGORIES[i]).getLevel();
+                Configurator.setLevel(FRAME_CATEGORIES[i], Level.WARN);
+            } else {
+                Configurator.setLevel(FRAME_CATEGORIES[i], configuredLevels[i]);
+            }
+        }
+        quiet = enabled;
+        logger.warn("Per-frame logging {}", enabled ? "limited to WARN" : "restored");
+    }
+
+    public static synchronized void toggleFrameLoggingQuiet() {
+        setFrameLoggingQuiet(!quiet);
+    }
+
+    public static synchronized boolean isFrameLoggingQuiet() {
+        return quiet;
+    }
+}
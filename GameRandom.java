@@ -0,0 +1,53 @@
+package se233.Asteroids_Project.model;
+
+import java.util.random.RandomGenerator;
+
+// Per-world random source (SplitMix64). Seeded explicitly so a run can be reproduced bit for
+// bit, and split() hands independent streams to other worlds or workers instead of sharing
+// one generator. Unlike SplittableRandom the state can be read back and restored, which
+// snapshots and replays rely on. Not thread-safe; each thread should own its instance.
+public class GameRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private long state;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    // A seed that differs between runs, for when reproducibility wasn't asked for
+    public static long randomSeed() {
+        return mix(System.nanoTime() ^ System.identityHashCode(new Object()));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    // Independent generator whose seed is drawn from this one
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,21 +1,31 @@
 package se233.Asteroids_Project.view;
 
-import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
 
 import se233.Asteroids_Project.controller.GameController;
+import se233.Asteroids_Project.model.AssetCache;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.EnumMap;
+
 public class GameStage extends Pane {
     // Logger for tracking events in this class
     private static final Logger logger = LogManager.getLogger(GameStage.class);
 
-    // Canvas for drawing game elements
-    private Canvas canvas;
-    private GraphicsContext gc;
+    // Stacked canvases, bottom to top; each is only cleared when its content changes
+    public enum Layer {
+        BACKGROUND,
+        WORLD,
+        EFFECTS,
+        HUD,
+        OVERLAY
+    }
+
+    private final EnumMap<Layer, CanvasLayer> layers = new EnumMap<>(Layer.class);
     private GameController gameController;
 
     // Dimensions of the game stage
@@ -31,36 +41,32 @@ public class GameStage extends Pane {
         setMinSize(stageWidth, stageHeight);
         setMaxSize(stageWidth, stageHeight);
 
-        // Initialize the canvas with specified dimensions
-        canvas = new Canvas(stageWidth, stageHeight);
-        gc = canvas.getGraphicsContext2D();  // Get the GraphicsContext for drawing
-
-        // Load and set the background image
-        try {
-            Image backgroundImage = new Image(getClass().getResourceAsStream("/se233/Asteroids_Project/asset/BG_Space.png")); // Path to the background image
-            BackgroundImage background = new BackgroundImage(
-                    backgroundImage,
-                    BackgroundRepeat.NO_REPEAT,  // No repetition of the background image
-                    BackgroundRepeat.NO_REPEAT,
-                    BackgroundPosition.DEFAULT,
-                    new BackgroundSize(
-                            stageWidth,
-                            stageHeight,
-                            false,
-                            false,
-                            false,
-                            true
-                    )
-            );
-            setBackground(new Background(background));  // Set the loaded background to the pane
-        } catch (Exception e) {
-            logger.error("Loading background image failed", e);
-            setStyle("-fx-background-color: #0a0029;");  // Default background color if image fails to load
-            e.printStackTrace();
+        // Initialize the canvas layers with specified dimensions
+        layers.put(Layer.BACKGROUND, new CanvasLayer(stageWidth, stageHeight, CanvasLayer.Policy.STATIC));
+        layers.put(Layer.WORLD, new CanvasLayer(stageWidth, stageHeight, CanvasLayer.Policy.ON_DEMAND));
+        layers.put(Layer.EFFECTS, new CanvasLayer(stageWidth, stageHeight, CanvasLayer.Policy.ON_DEMAND));
+        layers.put(Layer.HUD, new CanvasLayer(stageWidth, stageHeight, CanvasLayer.Policy.ON_DEMAND));
+        layers.put(Layer.OVERLAY, new CanvasLayer(stageWidth, stageHeight, CanvasLayer.Policy.ON_DEMAND));
+
+        // Paint the background image once; nothing redraws this layer afterwards
+        CanvasLayer backgroundLayer = layers.get(Layer.BACKGROUND);
+        backgroundLayer.beginFrame();
+        Image backgroundImage = AssetCache.getImage("/se233/Asteroids_Project/asset/BG_Space.png"); // Path to the background image
+        if (backgroundImage != null) {
+            // Cover the stage, preserving the image's aspect ratio
+            double scale = Math.max(stageWidth / backgroundImage.getWidth(), stageHeight / backgroundImage.getHeight());
+            backgroundLayer.getGraphicsContext().drawImage(backgroundImage, 0, 0,
+                    backgroundImage.getWidth() * scale, backgroundImage.getHeight() * scale);
+        } else {
+            logger.error("Loading background image failed");
+            backgroundLayer.getGraphicsContext().setFill(Color.web("#0a0029"));  // Default background color if image fails to load
+            backgroundLayer.getGraphicsContext().fillRect(0, 0, stageWidth, stageHeight);
         }
 
-        // Add the canvas to the pane
-        getChildren().add(canvas);
+        // Add the canvases to the pane, bottom layer first
+        for (CanvasLayer layer : layers.values()) {
+            getChildren().add(layer.getCanvas());
+        }
 
         // Initialize the game controller
         gameController = new GameController(this);
@@ -79,9 +85,13 @@ public class GameStage extends Pane {
         gameController.startGameLoop();
     }
 
-    // Getter for the GraphicsContext used for drawing on the canvas
+    public CanvasLayer getLayer(Layer layer) {
+        return layers.get(layer);
+    }
+
+    // Getter for the GraphicsContext of the world layer
     public GraphicsContext getGraphicsContext() {
-        return gc;
+        return layers.get(Layer.WORLD).getGraphicsContext();
     }
 
     // Get the width of the game stage
@@ -0,0 +1,958 @@
+package se233.Asteroids_Project.model;
+
+import se233.Asteroids_Project.model.Asset.ProjectileStore;
+import se233.Asteroids_Project.model.Asset.ProjectileType;
+import se233.Asteroids_Project.model.Effect.NukeExplosion;
+import se233.Asteroids_Project.model.Effect.ExplosionEffect;
+import se233.Asteroids_Project.model.Entities.Asteroids;
+import se233.Asteroids_Project.model.Entities.Boss;
+import se233.Asteroids_Project.model.Entities.Minion;
+import se233.Asteroids_Project.model.Entities.Player;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class GameWorld implements World {
+    private static final Logger logger = LogManager.getLogger(GameWorld.class);
+
+    private final double width;
+    private final double height;
+
+    // Game objects
+    private Player player;
+    private final List<Asteroids> asteroids = new ArrayList<>();
+    private final List<Minion> enemies = new ArrayList<>();
+    private final List<Boss> boss = new ArrayList<>();
+    // Variant each live non-Persistent entity was constructed with, so a save can rebuild it
+    private final Map<AllObject, Integer> variants = new IdentityHashMap<>();
+    private final ProjectileStore playerProjectiles;
+    private final ProjectileStore minionProjectiles;
+    private final ProjectileStore bossProjectiles;
+    private final List<ExplosionEffect> explosionEffects = new ArrayList<>();
+    private final List<NukeExplosion> nukeExplosions = new ArrayList<>();
+
+    // Reusable effects
+    private final EntityPools pools = new EntityPools();
+
+    // All spawn and pattern decisions draw from this, so a seed reproduces a run
+    private final GameRandom random;
+
+    // Per-entity updates, spread across cores for crowded waves
+    private final ParallelUpdate parallelUpdate;
+
+    // Collision broadphase, rebuilt every tick
+    private final SpatialHash<Asteroids> asteroidGrid;
+    private final SpatialHash<Minion> minionGrid;
+    private final SpatialHash<Boss> bossGrid;
+    private final List<Asteroids> asteroidCandidates = new ArrayList<>();
+    private final List<Minion> minionCandidates = new ArrayList<>();
+    private final List<Boss> bossCandidates = new ArrayList<>();
+
+    // Game state
+    private GameState gameState = GameState.MAIN_MENU;
+    private int level;
+    private final SpawnDirector spawnDirector = SpawnDirector.load();
+    private final TickProfiler profiler = new TickProfiler();
+    private final ScoringEngine scoring = new ScoringEngine();
+    private HighScoreStore highScores;  // null: this session's best only
+    private ScoringEngine.Listener highScoreSubmitter;
+    private boolean bossSpawned = false;
+    private boolean enemySpawned = false;
+    private boolean scoreThresholdReached = false;
+    private boolean canRotate = false;
+
+    private static final int SPREAD_SHOT_COUNT = 5;
+    private static final double SPREAD_ANGLE = 60.0;
+    private int bossAttackPattern = 0;
+    private static final int PATTERN_SWITCH_INTERVAL = 300; // frames (about 5 seconds at 60 FPS)
+    private int patternTimer = 0;
+
+    // Saved variant of entities this world has no record of, such as ones added by Collisions
+    private static final int DEFAULT_ASTEROID_VARIANT = 2;
+    private static final int DEFAULT_MINION_VARIANT = 1;
+    private static final int DEFAULT_BOSS_VARIANT = 1;
+
+    public GameWorld(double width, double height) {
+        this(width, height, Long.getLong("asteroids.seed", GameRandom.randomSeed()));
+    }
+
+    public GameWorld(double width, double height, long seed) {
+        this(width, height, seed, ParallelUpdate.fromSystemProperties());
+    }
+
+    // Many worlds side by side should each update on one thread and parallelise across worlds
+    public GameWorld(double width, double height, long seed, ParallelUpdate parallelUpdate) {
+        this.width = width;
+        this.height = height;
+        this.parallelUpdate = parallelUpdate;
+        this.random = new GameRandom(seed);
+        logger.info("World seed: {}", seed);
+
+        // Create player at center of screen
+        player = new Player(width / 2, height / 2, width, height);
+        logger.info("Player initialized at ({}, {})", width / 2, height / 2);
+
+        playerProjectiles = new ProjectileStore(ProjectileType.PLAYER, width, height, 64);
+        minionProjectiles = new ProjectileStore(ProjectileType.MINION, width, height, 64);
+        bossProjectiles = new ProjectileStore(ProjectileType.BOSS, width, height, 256);
+
+        asteroidGrid = new SpatialHash<>(width, height);
+        minionGrid = new SpatialHash<>(width, height);
+        bossGrid = new SpatialHash<>(width, height);
+
+        // Spawn initial objects for menu background
+        spawnAsteroids(3);
+        spawnEnemies(1);
+        spawnBoss();
+    }
+
+    @Override
+    public void step(double dt) {
+        long start = profiler.start();
+        switch (gameState) {
+            case MAIN_MENU:
+                updateMenu(dt);
+                break;
+            case PLAYGROUND:
+                updatePlaying(dt);
+                break;
+            case GAME_OVER:
+                break;
+        }
+        profiler.lap(TickProfiler.Phase.TICK, start);
+        profiler.recordEntities(getEntityCount());
+    }
+
+    private void updateMenu(double dt) {
+        // Update background objects
+        for (Asteroids asteroids : this.asteroids) {
+            asteroids.update(dt);
+        }
+        for (Minion minion : enemies) {
+            minion.update(dt);
+        }
+    }
+
+    private void updatePlaying(double dt) {
+        if (!player.isAlive()) {
+            gameState = GameState.GAME_OVER;
+            scoring.finishGame();
+            return;
+        }
+        long tickStart = profiler.start();
+        scoring.advance(dt);
+
+        // Update player first; enemies aim at its new position
+        player.update(dt);
+        long t = profiler.lap(TickProfiler.Phase.PLAYER, tickStart);
+
+        // Move everything else in parallel. These updates only touch their own entity, so
+        // removals, shooting and collisions follow below on this thread in list order.
+        parallelUpdate.add(explosionEffects, ExplosionEffect::update);
+        parallelUpdate.add(nukeExplosions, NukeExplosion::update);
+        parallelUpdate.add(asteroids, Asteroids::update);
+        parallelUpdate.add(enemies, Minion::update);
+        parallelUpdate.add(boss, Boss::update);
+        parallelUpdate.add(playerProjectiles::update, playerProjectiles.size());
+        parallelUpdate.add(minionProjectiles::update, minionProjectiles.size());
+        parallelUpdate.add(bossProjectiles::update, bossProjectiles.size());
+        parallelUpdate.run(dt);
+        t = profiler.lap(TickProfiler.Phase.ENTITY_UPDATE, t);
+
+        // Remove finished explosions
+        Iterator<ExplosionEffect> explosionIterator = explosionEffects.iterator();
+        while (explosionIterator.hasNext()) {
+            ExplosionEffect explosionEffect = explosionIterator.next();
+            if (explosionEffect.isFinished()) {
+                explosionIterator.remove();
+                pools.release(explosionEffect);
+            }
+        }
+
+        // Remove finished bomb explosions
+        Iterator<NukeExplosion> bombexplosionIterator = nukeExplosions.iterator();
+        while (bombexplosionIterator.hasNext()) {
+            NukeExplosion nukeExplosion = bombexplosionIterator.next();
+            if (nukeExplosion.isFinished()) {
+                bombexplosionIterator.remove();
+                pools.release(nukeExplosion);
+            }
+        }
+
+        t = profiler.lap(TickProfiler.Phase.EFFECTS, t);
+
+        // Check projectile collisions
+        updateProjectiles();
+        t = profiler.lap(TickProfiler.Phase.PLAYER_PROJECTILES, t);
+
+        // Remove destroyed asteroids
+        Iterator<Asteroids> asteroidIterator = asteroids.iterator();
+        while (asteroidIterator.hasNext()) {
+            Asteroids asteroid = asteroidIterator.next();
+            if (asteroid.isMarkedForDestruction()) {
+                forget(asteroid);
+                asteroidIterator.remove();
+            }
+        }
+
+        // Enemy shooting and removal
+        Iterator<Minion> enemyIterator = enemies.iterator();
+        while (enemyIterator.hasNext()) {
+            Minion minion = enemyIterator.next();
+
+            // Handle enemy shooting
+            if (minion.canShoot() && player.isAlive()) {
+                double angleToPlayer = minion.getAngleToPlayer();
+
+                // Calculate projectile spawn position
+                double spawnDistance = 20;
+                double angleRad = Math.toRadians(angleToPlayer);
+                double projectileX = minion.getX() + Math.cos(angleRad) * spawnDistance;
+                double projectileY = minion.getY() + Math.sin(angleRad) * spawnDistance;
+
+                minionProjectiles.spawn(projectileX, projectileY, angleToPlayer);
+                minion.resetShootCooldown();
+            }
+
+            if (minion.isMarkedForDestructionMinion()) {
+                enemyIterator.remove();
+                forget(minion);
+            }
+        }
+
+        // Boss shooting and removal
+        Iterator<Boss> bossIterator = boss.iterator();
+        while (bossIterator.hasNext()) {
+            Boss boss = bossIterator.next();
+
+            // Handle Boss shooting
+            if (boss.canShoot() && player.isAlive()) {
+                double angleToPlayer = boss.getAngleToPlayer();
+
+                // Calculate projectile spawn position
+                double spawnDistance = 200;
+                double angleRad = Math.toRadians(angleToPlayer);
+                double projectileX = boss.getX() + (boss.getWidth() / 2) + Math.cos(angleRad) * spawnDistance;
+                double projectileY = boss.getY() + (boss.getHeight() / 2) + Math.sin(angleRad) * spawnDistance;
+
+                // Update pattern timer and switch patterns
+                patternTimer++;
+                if (patternTimer >= PATTERN_SWITCH_INTERVAL) {
+                    bossAttackPattern = (bossAttackPattern + 1) % 3; // Cycle through 3 patterns
+                    patternTimer = 0;
+                }
+
+                // Different attack patterns
+                switch (bossAttackPattern) {
+                    case 0: // Multi-shot pattern
+                        double centerX = boss.getX() + (boss.getWidth() / 2);
+                        double centerY = boss.getY() + (boss.getHeight() / 2);
+                        bossProjectiles.spawnMultiShot(
+                                centerX, centerY,
+                                angleToPlayer,
+                                5,  // Number of bullets
+                                10.0 // Spacing between bullets
+                        );
+                        break;
+
+//                    case 1: // Spiral pattern
+//                        BossProjectile spiralShot = new BossProjectile(
+//                                projectileX, projectileY,
+//                                angleToPlayer,
+//                                width,
+//                                height,
+//                                BossProjectile.ProjectilePattern.SPIRAL
+//                        );
+//                        bossProjectiles.add(spiralShot);
+//                        break;
+//
+//                    case 2: // Spread pattern
+//
+//
+//                        double center1X = boss.getX() + (boss.getWidth() / 2);
+//                        double center1Y = boss.getY() + (boss.getHeight() / 2);
+//                        BossProjectile[] spreadShots = BossProjectile.createSpreadPattern(
+//                                center1X, center1Y,
+//                                angleToPlayer,
+//                                width,
+//                                height,
+//                                SPREAD_SHOT_COUNT,
+//                                SPREAD_ANGLE
+//                        );
+//                        for (BossProjectile shot : spreadShots) {
+//                            bossProjectiles.add(shot);
+//                        }
+//                        break;
+                }
+                boss.resetShootCooldown();
+            }
+
+            if (boss.isMarkedForDestructionBoss()) {
+                bossIterator.remove();
+                forget(boss);
+            }
+        }
+
+        t = profiler.lap(TickProfiler.Phase.ENEMIES, t);
+
+        // Check enemy projectiles against the player
+        updateEnemyProjectiles(minionProjectiles);
+        updateEnemyProjectiles(bossProjectiles);
+        t = profiler.lap(TickProfiler.Phase.ENEMY_PROJECTILES, t);
+
+        // Handle all collisions (projectile hits are resolved above)
+        Collisions.handleCollisions(player, asteroids, enemies, boss);
+        t = profiler.lap(TickProfiler.Phase.COLLISIONS, t);
+
+        int score = scoring.getCurrentScore();
+        if (spawnDirector.isBossUnlocked(score) && !scoreThresholdReached) {
+            scoreThresholdReached = true;
+            logger.info("Score threshold reached! Boss can now spawn");
+        }
+
+        // Spawn whatever the current wave calls for, within the entity and time budgets
+        SpawnDirector.Spawn spawn = spawnDirector.update(dt, score, asteroids.size(), enemies.size(), bossSpawned,
+                getSimulationLoad());
+        if (spawn != null) {
+            spawnAsteroids(spawn.getAsteroids());
+            spawnEnemies(spawn.getMinions());
+            if (spawn.isBoss() && scoreThresholdReached) {
+                enemySpawned = true;
+                // Only spawn boss if none exists
+                spawnBoss();
+            }
+        }
+
+        t = profiler.lap(TickProfiler.Phase.SPAWNING, t);
+        spawnDirector.recordTickTime(t - tickStart);
+
+        // One batched score event for everything credited this tick
+        scoring.publish();
+    }
+
+    private void updateProjectiles() {
+        // Broadphase: bucket every target once, then only test projectiles against nearby ones
+        asteroidGrid.rebuild(asteroids);
+        minionGrid.rebuild(enemies);
+        bossGrid.rebuild(boss);
+
+        // Removal swaps the last projectile into slot i, so only advance when we keep it
+        int i = 0;
+        while (i < playerProjectiles.size()) {
+            double hitX = playerProjectiles.getX(i);
+            double hitY = playerProjectiles.getY(i);
+
+            // Check collisions with asteroids
+            Asteroids hitAsteroid = findHit(playerProjectiles, i, asteroidGrid, asteroidCandidates);
+            if (hitAsteroid != null) {
+                playerProjectiles.remove(i);
+                hitAsteroid.takeDamage(1);
+                explosionEffects.add(pools.acquireExplosion(hitX, hitY));
+                if (hitAsteroid.isMarkedForDestruction()) {
+                    handleAsteroidDestruction(hitAsteroid);
+                }
+                continue;
+            }
+
+            // Check collisions with enemies
+            Minion hitMinion = findHit(playerProjectiles, i, minionGrid, minionCandidates);
+            if (hitMinion != null) {
+                playerProjectiles.remove(i);
+                // Instead of immediately destroying the enemy, damage it
+                hitMinion.takeDamage(1);
+                // Create small explosion effect for hit feedback
+                explosionEffects.add(pools.acquireExplosion(hitX, hitY));
+                // Only award points and create big explosion if enemy is destroyed
+                if (hitMinion.isMarkedForDestructionMinion()) {
+                    handleMinionDestruction(hitMinion);
+                }
+                continue;
+            }
+
+            // Check collisions with boss
+            Boss hitBoss = findHit(playerProjectiles, i, bossGrid, bossCandidates);
+            if (hitBoss != null) {
+                playerProjectiles.remove(i);
+                hitBoss.takeDamage(1);
+                explosionEffects.add(pools.acquireExplosion(hitX, hitY));
+                if (hitBoss.isMarkedForDestructionBoss()) {
+                    handleBossDestruction(hitBoss);
+                }
+                continue;
+            }
+            i++;
+        }
+    }
+
+    // Narrowphase over the broadphase candidates only; targets are anchored at their top-left
+    private <T extends AllObject> T findHit(ProjectileStore store, int index, SpatialHash<T> grid, List<T> candidates) {
+        double radius = store.getRadius();
+        grid.query(store.getX(index) - radius, store.getY(index) - radius, radius * 2, radius * 2, candidates);
+        for (T target : candidates) {
+            double halfWidth = target.getWidth() / 2;
+            double halfHeight = target.getHeight() / 2;
+            if (store.overlaps(index, target.getX() + halfWidth, target.getY() + halfHeight,
+                    Math.min(halfWidth, halfHeight))) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    private void updateEnemyProjectiles(ProjectileStore projectiles) {
+        if (!player.isAlive()) return;
+
+        // Check collision with player, which is anchored at its centre
+        double hitRadius = Math.min(player.getWidth(), player.getHeight()) / 2;
+        int i = 0;
+        while (i < projectiles.size()) {
+            if (projectiles.overlaps(i, player.getX(), player.getY(), hitRadius)) {
+                projectiles.remove(i);
+                player.hit();
+                continue;
+            }
+            i++;
+        }
+    }
+
+    private void handleAsteroidDestruction(Asteroids asteroids) {
+        asteroids.markForDestruction();
+        scoring.credit(asteroids.getPoints());
+        explosionEffects.add(pools.acquireExplosion(
+                asteroids.getX() + asteroids.getWidth()/2,
+                asteroids.getY() + asteroids.getHeight()/2
+        ));
+        logger.info("Asteroid destroyed! Score: {}", scoring.getCurrentScore());
+    }
+
+    private void handleMinionDestruction(Minion minion) {
+        minion.markForDestructionMinion();
+        scoring.credit(minion.getPointsMinion());
+        explosionEffects.add(pools.acquireExplosion(
+                minion.getX() + minion.getWidth()/2,
+                minion.getY() + minion.getHeight()/2
+        ));
+
+        logger.info("Enemy destroyed! Score: {}", scoring.getCurrentScore());
+    }
+
+    private void handleNukeAsteroidDestruction(Asteroids asteroids) {
+        asteroids.markForDestruction();
+        scoring.credit(asteroids.getPoints());
+        nukeExplosions.add(pools.acquireNukeExplosion(
+                asteroids.getX() + asteroids.getWidth()/2,
+                asteroids.getY() + asteroids.getHeight()/2
+        ));
+        logger.info("Asteroid destroyed! Score: {}", scoring.getCurrentScore());
+    }
+
+    private void handleNukeMinionDestruction(Minion minion) {
+        minion.markForDestructionMinion();
+        scoring.credit(minion.getPointsMinion());
+        nukeExplosions.add(pools.acquireNukeExplosion(
+                minion.getX() + minion.getWidth()/2,
+                minion.getY() + minion.getHeight()/2
+        ));
+
+        logger.info("Minion destroyed! Score: {}", scoring.getCurrentScore());
+    }
+
+    private void handleBossDestruction(Boss boss) {
+
+        scoring.credit(boss.getPointsBoss());
+        explosionEffects.add(pools.acquireExplosion(
+                boss.getX() + boss.getWidth()/2,
+                boss.getY() + boss.getHeight()/2
+        ));
+        boss.markForDestructionBoss();
+        bossSpawned = true;
+        enemySpawned = false;
+        logger.info("Boss destroyed! Score: {}", scoring.getCurrentScore());
+    }
+
+    private Optional<Asteroids> findNearestAsteroid() {
+        double shortestDistance = Double.MAX_VALUE;
+        Asteroids nearest = null;
+
+        for (Asteroids asteroids : this.asteroids) {
+            double dx = asteroids.getX() - player.getX();
+            double dy = asteroids.getY() - player.getY();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+
+            if (distance < shortestDistance) {
+                shortestDistance = distance;
+                nearest = asteroids;
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    private Optional<Minion> findNearestMinion() {
+        double shortestDistance = Double.MAX_VALUE;
+        Minion nearest = null;
+
+        for (Minion minion : enemies) {
+            double dx = minion.getX() - player.getX();
+            double dy = minion.getY() - player.getY();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+
+            if (distance < shortestDistance) {
+                shortestDistance = distance;
+                nearest = minion;
+            }
+        }
+
+        return Optional.ofNullable(nearest);
+    }
+
+    @Override
+    public void activateNuke() {
+        if (player.canUseNuke()) {
+            findNearestAsteroid().ifPresent(asteroids -> {
+                handleNukeAsteroidDestruction(asteroids);
+                player.useNuke();
+                logger.info("Nuke used on nearest asteroid");
+            });
+
+            findNearestMinion().ifPresent(minion -> {
+
+                handleNukeMinionDestruction(minion);
+                player.useNuke();
+                logger.info("Nuke used on nearest enemy");
+            });
+        }
+    }
+
+    @Override
+    public void rotatePlayerToCursor(double mouseX, double mouseY) {
+        if (canRotate && player.isAlive()) {
+            player.rotateToCursor(mouseX, mouseY); // Update player rotation
+        }
+    }
+
+    @Override
+    public void fireProjectile() {
+        if (player.canShoot()) {
+            // Calculate projectile spawn position (slightly in front of the ship)
+            double angleRad = Math.toRadians(player.getRotation());
+            double spawnDistance = 20;
+            double projectileX = player.getX() + Math.cos(angleRad) * spawnDistance;
+            double projectileY = player.getY() + Math.sin(angleRad) * spawnDistance;
+
+            playerProjectiles.spawn(projectileX, projectileY, player.getRotation());
+            player.resetShootCooldown();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Projectile fired from ({}, {})", projectileX, projectileY);
+            }
+        }
+    }
+
+    @Override
+    public void startNewGame() {
+        // Reset game state
+        scoring.reset();
+        level = 1;
+        spawnDirector.logStatistics();
+        spawnDirector.reset();
+        bossSpawned = false;
+        scoreThresholdReached = false;
+        enemySpawned = false;
+        canRotate = true;
+        bossAttackPattern = 0;
+        patternTimer = 0;
+        gameState = GameState.PLAYGROUND;
+
+
+        // Return pooled objects, then clear existing objects
+        pools.releaseAll(explosionEffects, pools.getExplosionPool());
+        pools.releaseAll(nukeExplosions, pools.getNukeExplosionPool());
+        pools.logStatistics();
+
+        asteroids.clear();
+        playerProjectiles.clear();
+        minionProjectiles.clear();
+        bossProjectiles.clear();
+        explosionEffects.clear();
+        nukeExplosions.clear();
+        enemies.clear();
+        boss.clear();
+        variants.clear();
+
+        // Reset player
+        double centerX = width / 2;
+        double centerY = height / 2;
+        player = new Player(centerX, centerY, width, height);
+
+        // Spawn initial asteroids
+        spawnAsteroids(2);
+        spawnEnemies(1);
+
+        logger.info("New game started");
+    }
+
+    public void spawnAsteroids(int count) {
+        for (int i = 0; i < count; i++) {
+            double x, y;
+            if (random.nextDouble() < 0.5) {
+                x = random.nextDouble() < 0.5 ? -30 : width + 30;
+                y = random.nextDouble() * height;
+            } else {
+                x = random.nextDouble() * width;
+                y = random.nextDouble() < 0.5 ? -30 : height + 30;
+            }
+
+            int asteroidSize = generateRandomAsteroidSize();
+            asteroids.add(track(new Asteroids(x, y, asteroidSize), asteroidSize));
+        }
+    }
+    public void spawnEnemies(int count) {
+        enemySpawned = false;
+        for (int i = 0; i < count; i++) {
+            double x, y;
+            if (random.nextDouble() < 0.5) {
+                x = random.nextDouble() < 0.5 ? -30 : width + 30;
+                y = random.nextDouble() * height;
+            } else {
+                x = random.nextDouble() * width;
+                y = random.nextDouble() < 0.5 ? -30 : height + 30;
+            }
+
+            int EnemyType = generateRandomEnemy();
+            enemies.add(track(new Minion(x, y, EnemyType ,player), EnemyType));
+        }
+    }
+
+    private void spawnBoss() {
+
+        if (scoreThresholdReached && !bossSpawned && boss.isEmpty()) { // Double check both flags
+            //enemies.clear();
+            enemySpawned = true;
+
+
+            double x, y;
+            if (random.nextDouble() < 0.5) {
+                x = random.nextDouble() < 0.5 ? -30 : width + 30;
+                y = random.nextDouble() * height;
+            } else {
+                x = random.nextDouble() * width;
+                y = random.nextDouble() < 0.5 ? -30 : height + 30;
+            }
+
+            int Boss = generateRandomBoss();
+            boss.add(track(new Boss(x, y, Boss, player), Boss));
+            bossSpawned = true;
+        }
+
+    }
+
+    private <T extends AllObject> T track(T entity, int variant) {
+        variants.put(entity, variant);
+        return entity;
+    }
+
+    private void forget(AllObject entity) {
+        variants.remove(entity);
+    }
+
+    private int generateRandomAsteroidSize() {
+        double roll = random.nextDouble();
+        if (roll < 0.35) {
+            return 1; // 35% chance for size 1
+        } else if (roll < 0.7) {
+            return 2; // 35% chance for size 2
+        } else {
+            return 3; // 30% chance for size 3
+        }
+    }
+
+    private int generateRandomEnemy() {
+        return random.nextDouble() < 0.6 ? 1 : 2;
+    }
+
+    private int generateRandomBoss() {
+        return 1;
+    }
+
+    // Save layout, version 3 of WorldSave: world settings and flags, RNG and spawn state, score,
+    // player, the entity lists, then the projectile stores. Effects are cosmetic and not saved.
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.putDouble(width).putDouble(height);
+        out.put((byte) gameState.ordinal());
+        out.putInt(level);
+        out.put((byte) ((bossSpawned ? 1 : 0) | (enemySpawned ? 2 : 0)
+                | (scoreThresholdReached ? 4 : 0) | (canRotate ? 8 : 0)));
+        out.putInt(bossAttackPattern).putInt(patternTimer);
+        out.putLong(random.getState());
+        out.putDouble(spawnDirector.getSpawnTimer());
+        out.putInt(scoring.getCurrentScore());
+
+        player.writeState(out);
+        writeEntities(out, asteroids, DEFAULT_ASTEROID_VARIANT);
+        writeEntities(out, enemies, DEFAULT_MINION_VARIANT);
+        writeEntities(out, boss, DEFAULT_BOSS_VARIANT);
+        playerProjectiles.writeState(out);
+        minionProjectiles.writeState(out);
+        bossProjectiles.writeState(out);
+    }
+
+    // Decodes the whole save before touching the world, so a corrupt one throws and leaves the
+    // game as it was. The player and projectile stores are decoded into scratch copies first and
+    // read again into the real ones once everything has passed.
+    @Override
+    public void readState(ByteBuffer in) {
+        double savedWidth = in.getDouble();
+        double savedHeight = in.getDouble();
+        if (savedWidth != width || savedHeight != height) {
+            throw new IllegalArgumentException("Save is for a " + savedWidth + "x" + savedHeight
+                    + " world, not " + width + "x" + height);
+        }
+        int state = in.get();
+        GameState[] states = GameState.values();
+        if (state < 0 || state >= states.length) {
+            throw new IllegalArgumentException("Unknown game state " + state);
+        }
+        int savedLevel = in.getInt();
+        int flags = in.get();
+        int savedPattern = in.getInt();
+        int savedPatternTimer = in.getInt();
+        long randomState = in.getLong();
+        double spawnTimer = in.getDouble();
+        int score = in.getInt();
+
+        int playerStart = in.position();
+        Map<AllObject, Integer> savedVariants = new IdentityHashMap<>();
+        new Player(width / 2, height / 2, width, height).readState(in);
+        List<Asteroids> savedAsteroids = readEntities(in, savedVariants, (x, y, variant) -> new Asteroids(x, y, variant));
+        // Keep the same Player: minions and bosses hold on to it
+        List<Minion> savedEnemies = readEntities(in, savedVariants, (x, y, variant) -> new Minion(x, y, variant, player));
+        List<Boss> savedBosses = readEntities(in, savedVariants, (x, y, variant) -> new Boss(x, y, variant, player));
+        int projectilesStart = in.position();
+        for (ProjectileStore store : new ProjectileStore[]{playerProjectiles, minionProjectiles, bossProjectiles}) {
+            new ProjectileStore(store.getType(), width, height, 0).readState(in);
+        }
+
+        // Everything decoded: apply it
+        int end = in.position();
+        gameState = states[state];
+        level = savedLevel;
+        bossSpawned = (flags & 1) != 0;
+        enemySpawned = (flags & 2) != 0;
+        scoreThresholdReached = (flags & 4) != 0;
+        canRotate = (flags & 8) != 0;
+        bossAttackPattern = savedPattern;
+        patternTimer = savedPatternTimer;
+        random.setState(randomState);
+        spawnDirector.reset();
+        spawnDirector.setSpawnTimer(spawnTimer);
+        scoring.restore(score);
+
+        player.readState(in.position(playerStart));
+        asteroids.clear();
+        asteroids.addAll(savedAsteroids);
+        enemies.clear();
+        enemies.addAll(savedEnemies);
+        boss.clear();
+        boss.addAll(savedBosses);
+        variants.clear();
+        variants.putAll(savedVariants);
+        in.position(projectilesStart);
+        playerProjectiles.readState(in);
+        minionProjectiles.readState(in);
+        bossProjectiles.readState(in);
+        in.position(end);
+
+        pools.releaseAll(explosionEffects, pools.getExplosionPool());
+        pools.releaseAll(nukeExplosions, pools.getNukeExplosionPool());
+        explosionEffects.clear();
+        nukeExplosions.clear();
+        logger.info("World restored: {} entities, score {}", getEntityCount(), scoring.getCurrentScore());
+    }
+
+    // Each entity is saved as the constructor arguments that rebuild it, followed by its own
+    // state when it is Persistent and by its fields (EntityFields) otherwise, so velocity and hit
+    // points survive either way. Entities this world didn't spawn itself are saved with
+    // defaultVariant.
+    private void writeEntities(ByteBuffer out, List<? extends AllObject> entities, int defaultVariant) {
+        out.putInt(entities.size());
+        for (AllObject entity : entities) {
+            out.putDouble(entity.getX()).putDouble(entity.getY());
+            if (entity instanceof Persistent persistent) {
+                out.putInt(persistent.getVariant());
+                out.put((byte) 1);
+                persistent.writeState(out);
+            } else {
+                out.putInt(variants.getOrDefault(entity, defaultVariant));
+                out.put((byte) 0);
+                EntityFields.write(entity, out);
+            }
+        }
+    }
+
+    // Non-Persistent entities are entered into savedVariants, to be tracked once the save is applied
+    private <T extends AllObject> List<T> readEntities(ByteBuffer in, Map<AllObject, Integer> savedVariants,
+                                                       EntityFactory<T> factory) {
+        int count = in.getInt();
+        // x, y, variant and the Persistent flag take at least 21 bytes per entity
+        if (count < 0 || count > in.remaining() / 21) {
+            throw new IllegalArgumentException("Invalid entity count " + count);
+        }
+        List<T> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = in.getDouble();
+            double y = in.getDouble();
+            int variant = in.getInt();
+            boolean persistent = in.get() != 0;
+            T entity = factory.create(x, y, variant);
+            if (persistent) {
+                if (!(entity instanceof Persistent state)) {
+                    throw new IllegalArgumentException(entity.getClass().getSimpleName() + " state cannot be restored");
+                }
+                state.readState(in);
+            } else {
+                EntityFields.read(entity, in);
+                savedVariants.put(entity, variant);
+            }
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private interface EntityFactory<T> {
+        T create(double x, double y, int variant);
+    }
+
+    // Finished games are submitted here, and its best counts towards the high score. Replaces
+    // any earlier store, which gets no further submissions.
+    public void setHighScoreStore(HighScoreStore highScores) {
+        if (highScoreSubmitter != null) {
+            scoring.unsubscribe(highScoreSubmitter);
+            highScoreSubmitter = null;
+        }
+        this.highScores = highScores;
+        if (highScores != null) {
+            highScoreSubmitter = change -> {
+                if (change.gameOver()) {
+                    highScores.submit(change.score(), random.getSeed());
+                }
+            };
+            scoring.subscribe(highScoreSubmitter);
+        }
+    }
+
+    // Switches the boss to pattern 0 (multi-shot), 1 (spiral) or 2 (spread) and restarts the
+    // switch timer; spiral and spread don't fire at the moment
+    public void setBossAttackPattern(int pattern) {
+        if (pattern < 0 || pattern >= 3) {
+            throw new IllegalArgumentException("Unknown boss attack pattern " + pattern);
+        }
+        bossAttackPattern = pattern;
+        patternTimer = 0;
+    }
+
+    @Override
+    public ScoringEngine getScoring() {
+        return scoring;
+    }
+
+    @Override
+    public int getHighScore() {
+        int best = scoring.getHighestScore();
+        return highScores == null ? best : Math.max(best, highScores.getHighestScore());
+    }
+
+    @Override
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    public SpawnDirector getSpawnDirector() {
+        return spawnDirector;
+    }
+
+    @Override
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    @Override
+    public GameState getState() {
+        return gameState;
+    }
+
+    @Override
+    public double getWidth() {
+        return width;
+    }
+
+    @Override
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public List<Asteroids> getAsteroids() {
+        return asteroids;
+    }
+
+    @Override
+    public List<Minion> getEnemies() {
+        return enemies;
+    }
+
+    @Override
+    public List<Boss> getBosses() {
+        return boss;
+    }
+
+    @Override
+    public ProjectileStore getPlayerProjectiles() {
+        return playerProjectiles;
+    }
+
+    @Override
+    public ProjectileStore getMinionProjectiles() {
+        return minionProjectiles;
+    }
+
+    @Override
+    public ProjectileStore getBossProjectiles() {
+        return bossProjectiles;
+    }
+
+    @Override
+    public List<ExplosionEffect> getExplosionEffects() {
+        return explosionEffects;
+    }
+
+    @Override
+    public List<NukeExplosion> getNukeExplosions() {
+        return nukeExplosions;
+    }
+
+    // Live asteroids, minions and bosses. Projectiles are left out so firing doesn't hold off
+    // waves, and effects because they are cosmetic and not saved.
+    private int getSimulationLoad() {
+        return asteroids.size() + enemies.size() + boss.size();
+    }
+
+    @Override
+    public int getEntityCount() {
+        return asteroids.size() + enemies.size() + boss.size()
+                + playerProjectiles.size() + minionProjectiles.size() + bossProjectiles.size()
+                + explosionEffects.size() + nukeExplosions.size();
+    }
+}
@@ -0,0 +1,18 @@
+package se233.Asteroids_Project.model;
+
+// Process-wide switch for running the simulation without a JavaFX toolkit. Entities skip
+// Image loading when it is on. Enable with -Dasteroids.headless=true or Headless.enable().
+public final class Headless {
+    private static volatile boolean enabled = Boolean.getBoolean("asteroids.headless");
+
+    private Headless() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+}
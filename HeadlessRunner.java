@@ -0,0 +1,73 @@
+package se233.Asteroids_Project.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.GameRandom;
+import se233.Asteroids_Project.model.GameState;
+import se233.Asteroids_Project.model.GameWorld;
+import se233.Asteroids_Project.model.Headless;
+
+// Steps a GameWorld as fast as the CPU allows, without a display, and reports throughput.
+// Usage: HeadlessRunner [ticks] [extraAsteroids] [extraMinions] [seed]
+public class HeadlessRunner {
+    private static final Logger logger = LogManager.getLogger(HeadlessRunner.class);
+
+    private static final double STAGE_WIDTH = 800;
+    private static final double STAGE_HEIGHT = 600;
+
+    private final GameWorld world;
+    private final double dt;
+    private int restarts;
+    private int peakEntities;
+
+    public HeadlessRunner(GameWorld world, double dt) {
+        this.world = world;
+        this.dt = dt;
+    }
+
+    // Runs the given number of ticks and returns the achieved ticks per second
+    public double run(long ticks) {
+        long start = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            // Keep the player shooting and restart after game over so the load stays up
+            if (world.getState() != GameState.PLAYGROUND) {
+                world.startNewGame();
+                restarts++;
+            }
+            world.fireProjectile();
+            world.step(dt);
+            peakEntities = Math.max(peakEntities, world.getEntityCount());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return ticks / seconds;
+    }
+
+    public int getRestarts() {
+        return restarts;
+    }
+
+    public int getPeakEntities() {
+        return peakEntities;
+    }
+
+    public static void main(String[] args) {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int extraAsteroids = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int extraMinions = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : GameRandom.randomSeed();
+
+        Headless.enable();
+        GameWorld world = new GameWorld(STAGE_WIDTH, STAGE_HEIGHT, seed);
+        world.startNewGame();
+        world.spawnAsteroids(extraAsteroids);
+        world.spawnEnemies(extraMinions);
+
+        HeadlessRunner runner = new HeadlessRunner(world, FixedStepLoop.DEFAULT_STEP);
+        double ticksPerSecond = runner.run(ticks);
+
+        logger.info("Headless run: {} ticks, {} ticks/s ({}x real time), peak entities {}, restarts {}",
+                ticks, String.format("%.0f", ticksPerSecond),
+                String.format("%.1f", ticksPerSecond * FixedStepLoop.DEFAULT_STEP),
+                runner.getPeakEntities(), runner.getRestarts());
+    }
+}
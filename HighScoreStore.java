@@ -0,0 +1,277 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Durable leaderboard in a directory of two files:
+//   scores.log  append-only log of every submitted score, one 24-byte record each
+//               (long timestamp, int score, long seed, int CRC32 of the first 20 bytes)
+//   scores.idx  memory-mapped top-N index: header (magic "ASHX", version, capacity, count,
+//               long log length covered), entries (int score, long timestamp, long seed),
+//               then a CRC32 over everything before it
+// submit() only queues; a writer thread appends each batch in one write with one fsync, then
+// rewrites the index. On open the index is trusted up to the log length it covers and the rest
+// of the log is replayed, so a crash at any point loses nothing that was synced. A torn last
+// record is cut off; a torn index is rebuilt from the whole log. Reads go to an immutable
+// ranking published after every batch, so the HUD never touches the disk or a lock.
+public class HighScoreStore implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(HighScoreStore.class);
+
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static final int RECORD_BYTES = 24;
+    private static final int INDEX_MAGIC = 0x41534858;
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 24;
+    private static final int INDEX_ENTRY_BYTES = 20;
+    private static final int MAX_BATCH = 64;
+
+    public record Entry(int score, long timestamp, long seed) {
+    }
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final int capacity;
+    private final FileChannel log;
+    private final MappedByteBuffer index;
+    private final int indexCrcOffset;
+    private final LinkedBlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // Writer thread only, after open
+    private final List<Entry> ranking = new ArrayList<>();
+    private final List<Entry> batch = new ArrayList<>(MAX_BATCH);
+    private final ByteBuffer records = ByteBuffer.allocate(MAX_BATCH * RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private long logLength;
+
+    private volatile Entry[] top = EMPTY;
+    private volatile boolean running = true;
+
+    private HighScoreStore(Path directory, int capacity) throws IOException {
+        this.capacity = capacity;
+        Files.createDirectories(directory);
+        this.log = FileChannel.open(directory.resolve("scores.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexCrcOffset = INDEX_HEADER_BYTES + capacity * INDEX_ENTRY_BYTES;
+        try (FileChannel indexChannel = FileChannel.open(directory.resolve("scores.idx"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexCrcOffset + 4);
+        }
+
+        long replayFrom = readIndex() ? logLength : 0;
+        int replayed = replayLog(replayFrom);
+        if (replayed > 0 || replayFrom == 0) {
+            writeIndex();
+        }
+        top = ranking.toArray(EMPTY);
+        logger.info("High scores loaded from {}: best {}, {} replayed from the log",
+                directory, getHighestScore(), replayed);
+
+        this.writer = new Thread(this::runWriter, "high-score-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static HighScoreStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_CAPACITY);
+    }
+
+    public static HighScoreStore open(Path directory, int capacity) throws IOException {
+        return new HighScoreStore(directory, capacity);
+    }
+
+    // Queues a finished game's score; never blocks
+    public void submit(int score, long seed) {
+        if (!running) {
+            logger.warn("High score {} submitted after close, dropped", score);
+            return;
+        }
+        pending.offer(new Entry(score, System.currentTimeMillis(), seed));
+    }
+
+    public int getHighestScore() {
+        Entry[] entries = top;
+        return entries.length == 0 ? 0 : entries[0].score();
+    }
+
+    // Best first; the array is never modified
+    public Entry[] getTop() {
+        return top;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Writes whatever is still queued, then closes the files
+    @Override
+    public void close() {
+        if (!running) return;
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.error("Failed to close high score log", e);
+        }
+    }
+
+    private void runWriter() {
+        // Not interrupted on close: an interrupt would close the channel mid-write
+        while (running || !pending.isEmpty()) {
+            try {
+                Entry first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.clear();
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                writeBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeBatch() {
+        records.clear();
+        for (Entry entry : batch) {
+            int start = records.position();
+            records.putLong(entry.timestamp()).putInt(entry.score()).putLong(entry.seed());
+            crc.reset();
+            crc.update(records.array(), start, RECORD_BYTES - 4);
+            records.putInt((int) crc.getValue());
+            rank(entry);
+        }
+        records.flip();
+        // Published even if the disk fails, so this session still shows them
+        top = ranking.toArray(EMPTY);
+
+        try {
+            long position = logLength;
+            while (records.hasRemaining()) {
+                position += log.write(records, position);
+            }
+            log.force(false);
+            logLength = position;
+            writeIndex();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Wrote {} high score records, log now {} bytes", batch.size(), logLength);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write {} high score records", batch.size(), e);
+        }
+    }
+
+    // Keeps the ranking sorted best first, earlier scores ahead on ties, and at most capacity long
+    private void rank(Entry entry) {
+        int i = ranking.size();
+        while (i > 0 && ranking.get(i - 1).score() < entry.score()) {
+            i--;
+        }
+        if (i >= capacity) return;
+        ranking.add(i, entry);
+        if (ranking.size() > capacity) {
+            ranking.remove(ranking.size() - 1);
+        }
+    }
+
+    // Loads the ranking and covered log length; false when the index is missing, torn or stale
+    private boolean readIndex() throws IOException {
+        if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION
+                || index.getInt(8) != capacity || index.getInt(indexCrcOffset) != indexChecksum()) {
+            return false;
+        }
+        int count = index.getInt(12);
+        long covered = index.getLong(16);
+        if (count < 0 || count > capacity || covered < 0 || covered % RECORD_BYTES != 0 || covered > log.size()) {
+            return false;
+        }
+        ranking.clear();
+        for (int i = 0; i < count; i++) {
+            int offset = INDEX_HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+            ranking.add(new Entry(index.getInt(offset), index.getLong(offset + 4), index.getLong(offset + 12)));
+        }
+        logLength = covered;
+        return true;
+    }
+
+    // Entries first and checksum last, so a crash part way leaves an index that fails the check
+    private void writeIndex() throws IOException {
+        for (int i = 0; i < ranking.size(); i++) {
+            Entry entry = ranking.get(i);
+            int offset = INDEX_HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+            index.putInt(offset, entry.score());
+            index.putLong(offset + 4, entry.timestamp());
+            index.putLong(offset + 12, entry.seed());
+        }
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, capacity);
+        index.putInt(12, ranking.size());
+        index.putLong(16, logLength);
+        index.putInt(indexCrcOffset, indexChecksum());
+        index.force();
+    }
+
+    private int indexChecksum() {
+        crc.reset();
+        crc.update(index.slice(0, indexCrcOffset));
+        return (int) crc.getValue();
+    }
+
+    // Ranks every intact record from position on and cuts the log after the last one
+    private int replayLog(long position) throws IOException {
+        long size = log.size();
+        ByteBuffer chunk = ByteBuffer.allocate(RECORD_BYTES * 1024);
+        int replayed = 0;
+        logLength = position;
+        outer:
+        while (position < size) {
+            chunk.clear();
+            int read = log.read(chunk, position);
+            if (read <= 0) break;
+            chunk.flip();
+            while (chunk.remaining() >= RECORD_BYTES) {
+                int start = chunk.position();
+                crc.reset();
+                crc.update(chunk.array(), start, RECORD_BYTES - 4);
+                long timestamp = chunk.getLong();
+                int score = chunk.getInt();
+                long seed = chunk.getLong();
+                if (chunk.getInt() != (int) crc.getValue()) {
+                    break outer;
+                }
+                rank(new Entry(score, timestamp, seed));
+                position += RECORD_BYTES;
+                logLength = position;
+                replayed++;
+            }
+            if (read < RECORD_BYTES) break;
+        }
+        if (logLength < size) {
+            logger.warn("High score log has {} damaged trailing bytes, truncating", size - logLength);
+            log.truncate(logLength);
+            log.force(false);
+        }
+        return replayed;
+    }
+}
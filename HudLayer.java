@@ -0,0 +1,130 @@
+package se233.Asteroids_Project.view;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import se233.Asteroids_Project.model.SpriteAtlas;
+
+// In-game HUD drawn onto GameStage's HUD layer. Each field remembers the value it last
+// drew and is only cleared and redrawn when that value changes, so a frame where nothing
+// changed touches no pixels at all.
+public class HudLayer {
+    // Fonts shared by every text renderer, created once instead of every frame
+    public static final Font TITLE_FONT = Font.font("Arial", FontWeight.BOLD, 40);
+    public static final Font PROMPT_FONT = Font.font("Arial", FontWeight.BOLD, 20);
+    public static final Font HUD_FONT = Font.font("Arial", 20);
+    public static final Font INFO_FONT = Font.font("Arial", 16);
+
+    private static final Color NUKE_READY_COLOR = Color.LIGHTGREEN;
+    private static final Color NUKE_COOLDOWN_COLOR = Color.RED;
+
+    // Field rows: top of the cleared band and its height
+    private static final double FIELD_WIDTH = 300;
+    private static final double SCORE_TOP = 8, HIGH_SCORE_TOP = 38, COMBO_TOP = 68, LIVES_TOP = 98;
+    private static final double ROW_HEIGHT = 30, LIVES_HEIGHT = 40, NUKE_HEIGHT = 28;
+
+    private final double height;
+    private final GraphicsContext gc;
+    private final SpriteAtlas.Sprite lifeIcon;
+    private final StringBuilder text = new StringBuilder(32);
+
+    // Last drawn values; -1 forces a redraw
+    private int score = -1;
+    private int highScore = -1;
+    private boolean highScoreBeaten;
+    private int combo = -1;
+    private int lives = -1;
+    private int nukeTenths = -1;
+
+    public HudLayer(CanvasLayer layer) {
+        this.height = layer.getCanvas().getHeight();
+        this.gc = layer.getGraphicsContext();
+        this.lifeIcon = SpriteAtlas.get().sprite("player_ship");
+    }
+
+    // Force every field to redraw, e.g. after the layer was cleared for another screen
+    public void invalidate() {
+        score = -1;
+        highScore = -1;
+        combo = -1;
+        lives = -1;
+        nukeTenths = -1;
+    }
+
+    public void update(WorldSnapshot snapshot) {
+        gc.setTextAlign(TextAlignment.LEFT);
+        int currentScore = snapshot.getScore();
+        if (currentScore != score) {
+            score = currentScore;
+            clearRow(SCORE_TOP, ROW_HEIGHT);
+            text.setLength(0);
+            drawText(text.append("Score: ").append(score), Color.WHITE, HUD_FONT, 30);
+        }
+
+        int currentHighScore = snapshot.getHighScore();
+        boolean beaten = snapshot.isHighScoreBeaten();
+        if (currentHighScore != highScore || beaten != highScoreBeaten) {
+            highScore = currentHighScore;
+            highScoreBeaten = beaten;
+            clearRow(HIGH_SCORE_TOP, ROW_HEIGHT);
+            text.setLength(0);
+            // Gold color for new high score
+            drawText(text.append("Highest Score: ").append(highScore), beaten ? Color.GOLD : Color.WHITE, HUD_FONT, 60);
+        }
+
+        int currentCombo = snapshot.getCombo();
+        if (currentCombo != combo) {
+            combo = currentCombo;
+            clearRow(COMBO_TOP, ROW_HEIGHT);
+            // Draw combo if active
+            if (combo > 1) {
+                text.setLength(0);
+                drawText(text.append("Combo x").append(combo), Color.YELLOW, HUD_FONT, 90);
+            }
+        }
+
+        int currentLives = snapshot.getLives();
+        if (currentLives != lives) {
+            lives = currentLives;
+            clearRow(LIVES_TOP, LIVES_HEIGHT);
+            drawText("Lives: ", Color.WHITE, HUD_FONT, 120);
+
+            // Draw life icons
+            double iconSize = 30;
+            double baseX = 70;
+            double baseY = 105;
+            double spacing = 25;
+            if (lifeIcon != null) {
+                for (int i = 0; i < lives; i++) {
+                    lifeIcon.draw(gc, 0, baseX + (i * spacing), baseY, iconSize, iconSize);
+                }
+            }
+        }
+
+        // Bomb status at 0.1 s resolution, which is all the text shows
+        int currentNukeTenths = (int) Math.ceil(snapshot.getBombCooldown() * 10);
+        if (currentNukeTenths != nukeTenths) {
+            nukeTenths = currentNukeTenths;
+            clearRow(height - NUKE_HEIGHT, NUKE_HEIGHT);
+            text.setLength(0);
+            if (nukeTenths > 0) {
+                text.append("Nuke: ").append(nukeTenths / 10).append('.').append(nukeTenths % 10).append('s');
+            } else {
+                text.append("Nuke: READY");
+            }
+            drawText(text, nukeTenths > 0 ? NUKE_COOLDOWN_COLOR : NUKE_READY_COLOR, INFO_FONT, height - 10);
+        }
+    }
+
+    private void clearRow(double top, double rowHeight) {
+        gc.clearRect(0, top, FIELD_WIDTH, rowHeight);
+    }
+
+    private void drawText(CharSequence value, Color color, Font font, double baselineY) {
+        gc.setFill(color);
+        gc.setFont(font);
+        gc.fillText(value.toString(), 10, baselineY);
+    }
+}
@@ -0,0 +1,140 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.scene.input.KeyCode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single-producer, single-consumer ring buffer of timestamped input events. The FX thread
+// records events as they arrive; the simulation drains them at the start of a tick. Events
+// are stored in parallel primitive arrays, so recording never allocates or locks. Mouse moves
+// are coalesced while draining: only the latest position is applied, once per tick, or just
+// before a click that depends on it.
+public class InputQueue {
+    private static final Logger logger = LogManager.getLogger(InputQueue.class);
+
+    public static final int KEY_PRESSED = 0;
+    public static final int KEY_RELEASED = 1;
+    public static final int MOUSE_MOVED = 2;
+    public static final int MOUSE_CLICKED = 3;
+
+    private static final KeyCode[] KEY_CODES = KeyCode.values();
+
+    public interface Handler {
+        void keyPressed(KeyCode code, long time);
+
+        void keyReleased(KeyCode code, long time);
+
+        void mouseMoved(double x, double y, long time);
+
+        void mouseClicked(double x, double y, long time);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] keys;
+    private final double[] xs;
+    private final double[] ys;
+    private final long[] times;
+
+    // Next slot to write (producer) and to read (consumer); published with lazySet
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private long dropped;  // producer side only
+
+    // capacity is rounded up to a power of two
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.keys = new int[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.times = new long[size];
+    }
+
+    // Producer side
+
+    public void keyPressed(KeyCode code) {
+        offer(KEY_PRESSED, code.ordinal(), 0, 0);
+    }
+
+    public void keyReleased(KeyCode code) {
+        offer(KEY_RELEASED, code.ordinal(), 0, 0);
+    }
+
+    public void mouseMoved(double x, double y) {
+        offer(MOUSE_MOVED, -1, x, y);
+    }
+
+    public void mouseClicked(double x, double y) {
+        offer(MOUSE_CLICKED, -1, x, y);
+    }
+
+    private void offer(int type, int key, double x, double y) {
+        long h = head.get();
+        if (h - tail.get() > mask) {
+            // Never stall the FX thread; a full buffer means the simulation has stopped draining
+            if (dropped++ % 100 == 0) {
+                logger.warn("Input queue full, {} events dropped", dropped);
+            }
+            return;
+        }
+        int slot = (int) h & mask;
+        types[slot] = type;
+        keys[slot] = key;
+        xs[slot] = x;
+        ys[slot] = y;
+        times[slot] = System.nanoTime();
+        head.lazySet(h + 1);
+    }
+
+    // Consumer side: dispatches every queued event in order and returns how many were read
+    public int drain(Handler handler) {
+        long t = tail.get();
+        long h = head.get();
+        boolean moved = false;
+        double moveX = 0;
+        double moveY = 0;
+        long moveTime = 0;
+
+        for (; t < h; t++) {
+            int slot = (int) t & mask;
+            switch (types[slot]) {
+                case KEY_PRESSED:
+                    handler.keyPressed(KEY_CODES[keys[slot]], times[slot]);
+                    break;
+                case KEY_RELEASED:
+                    handler.keyReleased(KEY_CODES[keys[slot]], times[slot]);
+                    break;
+                case MOUSE_MOVED:
+                    moved = true;
+                    moveX = xs[slot];
+                    moveY = ys[slot];
+                    moveTime = times[slot];
+                    break;
+                case MOUSE_CLICKED:
+                    // Aim before firing
+                    if (moved) {
+                        handler.mouseMoved(moveX, moveY, moveTime);
+                        moved = false;
+                    }
+                    handler.mouseClicked(xs[slot], ys[slot], times[slot]);
+                    break;
+            }
+        }
+        if (moved) {
+            handler.mouseMoved(moveX, moveY, moveTime);
+        }
+
+        int count = (int) (h - tail.get());
+        tail.lazySet(h);
+        return count;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,78 @@
+package se233.Asteroids_Project.model;
+
+import java.util.ArrayDeque;
+
+// Bounded free-list of reusable objects. acquire() returns null when the pool is empty so the
+// caller can construct a fresh instance with its own arguments; release() keeps at most
+// capacity instances and lets the rest go to the GC.
+public class ObjectPool<T> {
+    private final String name;
+    private final int capacity;
+    private final ArrayDeque<T> free;
+
+    // Statistics
+    private long hits;
+    private long misses;
+    private long dropped;
+
+    public ObjectPool(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>(capacity);
+    }
+
+    public T acquire() {
+        T object = free.pollLast();
+        if (object == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return object;
+    }
+
+    public void release(T object) {
+        if (free.size() < capacity) {
+            free.addLast(object);
+        } else {
+            dropped++;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getFreeCount() {
+        return free.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // Number of acquires that found the pool exhausted and had to allocate
+    public long getMisses() {
+        return misses;
+    }
+
+    // Number of releases thrown away because the pool was already at capacity
+    public long getDropped() {
+        return dropped;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[free=%d/%d, hitRate=%.2f, misses=%d, dropped=%d]",
+                name, free.size(), capacity, getHitRate(), misses, dropped);
+    }
+}
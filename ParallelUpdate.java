@@ -0,0 +1,108 @@
+package se233.Asteroids_Project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleConsumer;
+import java.util.function.ObjDoubleConsumer;
+
+// Runs the independent per-entity updates of a tick across a ForkJoinPool. Lists are split
+// into fixed-size chunks and every chunk or store becomes one job; each job may only touch the
+// state of the entities it was given. Everything that crosses entities (collisions, spawning,
+// removal, shooting) stays on the calling thread after run() returns, in list order, so the
+// outcome doesn't depend on scheduling. Small worlds (counting projectiles) run inline, where
+// forking costs more than it saves. Pools are shared by every instance with the same parallelism
+// and live as long as the process, so worlds can come and go without leaking threads; their
+// workers are daemons.
+//
+// Entity state is updated in place, not into a second buffer: no job reads another job's
+// entities, and nothing reads them at all until run() has joined every job. The double buffer
+// the renderer needs is the WorldSnapshot captured after the tick, not the entities themselves.
+public class ParallelUpdate {
+    public static final int DEFAULT_CHUNK_SIZE = 128;
+
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final List<Runnable> jobs = new ArrayList<>();
+    private int entityCount;
+    private double dt;
+
+    // parallelism <= 1 updates everything on the calling thread
+    public ParallelUpdate(int parallelism, int chunkSize) {
+        this.pool = parallelism > 1 ? POOLS.computeIfAbsent(parallelism, ForkJoinPool::new) : null;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // -Dasteroids.updateThreads, defaulting to one per core
+    public static ParallelUpdate fromSystemProperties() {
+        int parallelism = Integer.getInteger("asteroids.updateThreads", Runtime.getRuntime().availableProcessors());
+        return new ParallelUpdate(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    public <T> void add(List<T> list, ObjDoubleConsumer<T> update) {
+        int size = list.size();
+        entityCount += size;
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            jobs.add(() -> {
+                for (int i = start; i < end; i++) {
+                    update.accept(list.get(i), dt);
+                }
+            });
+        }
+    }
+
+    // A self-contained update such as a projectile store, run as a single job. size is how many
+    // elements it updates, so a world of a few entities and thousands of bullets still forks.
+    public void add(DoubleConsumer update, int size) {
+        entityCount += size;
+        jobs.add(() -> update.accept(dt));
+    }
+
+    // Runs and then forgets every job added since the last call
+    public void run(double dt) {
+        this.dt = dt;
+        try {
+            if (pool == null || jobs.size() < 2 || entityCount < chunkSize) {
+                for (Runnable job : jobs) {
+                    job.run();
+                }
+            } else {
+                pool.invoke(new Batch(0, jobs.size()));
+            }
+        } finally {
+            jobs.clear();
+            entityCount = 0;
+        }
+    }
+
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    private final class Batch extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        Batch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                jobs.get(from).run();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(from, mid), new Batch(mid, to));
+        }
+    }
+}
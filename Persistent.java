@@ -0,0 +1,33 @@
+package se233.Asteroids_Project.model;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+// Simulation state that is written into a world save and read back field by field, without
+// Java serialization. readState must consume exactly what writeState produced, in the same
+// order. Entities that don't implement it are saved through EntityFields instead.
+public interface Persistent {
+    void writeState(ByteBuffer out);
+
+    void readState(ByteBuffer in);
+
+    // The size or type an entity was constructed with; restoring constructs it with this again
+    default int getVariant() {
+        return 0;
+    }
+
+    // Writes state into buffer, doubling it (direct if it was) until everything fits. Returns the
+    // buffer holding the state, flipped for reading; keep it to reuse for the next write.
+    static ByteBuffer encode(Persistent state, ByteBuffer buffer) {
+        while (true) {
+            buffer.clear();
+            try {
+                state.writeState(buffer);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                int capacity = buffer.capacity() * 2;
+                buffer = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            }
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package se233.Asteroids_Project.model.Entities;
 
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import se233.Asteroids_Project.model.AllObject;
+import se233.Asteroids_Project.model.Headless;
+import se233.Asteroids_Project.model.Persistent;
+import se233.Asteroids_Project.model.SpriteAtlas;
 
-public class Player extends AllObject {
+import java.nio.ByteBuffer;
+
+public class Player extends AllObject implements Persistent {
     private static final Logger logger = LogManager.getLogger(Player.class);
 
-    private static final String Idle = "/se233/Asteroids_Project/asset/player_ship.png";
-    private static final String Move = "/se233/Asteroids_Project/asset/player_ani.png";
-    private static final String Hit = "/se233/Asteroids_Project/asset/BlueExplosion.png";
-    private static final String Shoot = "/se233/Asteroids_Project/asset/GreenE2.png";
+    // Sprite names in the shared atlas
+    private static final String Idle = "player_ship";
+    private static final String Move = "player_ani";
+    private static final String Hit = "BlueExplosion";
+    private static final String Shoot = "GreenE2";
 
-    private Image hitImage;
-    private Image shootEffectImage; // New image for shoot effect
+    private SpriteAtlas.Sprite hitSprite;
+    private SpriteAtlas.Sprite shootEffectSprite; // New image for shoot effect
     private int HitFrame = 0;
     private int shootEffectFrame = 0; // Track current frame of shoot effect
     private double HitAnimationTimer = 0;
@@ -25,10 +30,12 @@ public class Player extends AllObject {
     private static final int Hit_FRAME_COUNT = 4;
     private static final int SHOOT_EFFECT_FRAME_COUNT = 6; // Number of frames in shoot effect animation
     private boolean isShowingShootEffect = false; // Flag to control shoot effect visibility
-    private Image idleImage;
+    private SpriteAtlas.Sprite idleSprite;
+    private SpriteAtlas.Sprite moveSprite;
     private PlayerState currentState = PlayerState.IDLE;
 
-    // Movement properties
+    // Movement properties (tuned per 60 Hz frame, scaled by dt in update)
+    private static final double FRAME_RATE = 60.0;
     private double maxSpeed = 5.0;
     private double acceleration = 0.2;
     private double deceleration = 0.98;
@@ -38,6 +45,11 @@ public class Player extends AllObject {
     private double velocityX = 0;
     private double velocityY = 0;
 
+    // State at the start of the last step, used to interpolate rendering
+    private double prevX;
+    private double prevY;
+    private double prevRotation;
+
     // Screen boundaries
     private final double screenWidth;
     private final double screenHeight;
@@ -71,19 +83,24 @@ public class Player extends AllObject {
 
 
     public Player(double x, double y, double screenWidth, double screenHeight) {
-        super(Move,x, y, 48, 48);
+        // Frames come from the shared atlas instead of AllObject's own sprite sheet
+        super(null, x, y, 48, 48);
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
         this.lives = 3;
         this.isInvulnerable = false;
         this.rotation = -90;  // Start facing upward
-
-        try {
-            this.idleImage = new Image(getClass().getResourceAsStream(Idle));
-            this.hitImage = new Image(getClass().getResourceAsStream(Hit));
-            this.shootEffectImage = new Image(getClass().getResourceAsStream(Shoot));
-        } catch (Exception e) {
-            logger.error("Failed to load idle image: " + e.getMessage());
+        this.prevX = x;
+        this.prevY = y;
+        this.prevRotation = rotation;
+
+        // Images need the JavaFX toolkit; the simulation doesn't
+        if (!Headless.isEnabled()) {
+            SpriteAtlas atlas = SpriteAtlas.get();
+            this.idleSprite = atlas.sprite(Idle);
+            this.moveSprite = atlas.sprite(Move, 48, 48);
+            this.hitSprite = atlas.sprite(Hit, 48, 48);
+            this.shootEffectSprite = atlas.sprite(Shoot, 48, 48);
         }
 
         initializeAnimation(48, 48, 4, 0.1);
@@ -91,11 +108,15 @@ public class Player extends AllObject {
     }
 
     @Override
-    public void update() {
+    public void update(double dt) {
+        prevX = x;
+        prevY = y;
+        prevRotation = rotation;
+        double frames = dt * FRAME_RATE;
 
         // Update shoot effect animation
         if (isShowingShootEffect) {
-            shootEffectTimer += 0.016;
+            shootEffectTimer += dt;
             if (shootEffectTimer >= SHOOT_EFFECT_FRAME_DURATION) {
                 shootEffectFrame = (shootEffectFrame + 1) % SHOOT_EFFECT_FRAME_COUNT;
                 shootEffectTimer = 0;
@@ -109,7 +130,7 @@ public class Player extends AllObject {
 
         // Update bomb cooldown
         if (!canUseBomb) {
-            bombCooldownTimer -= 0.016; // Assuming 60 FPS
+            bombCooldownTimer -= dt;
             if (bombCooldownTimer <= 0) {
                 canUseBomb = true;
                 logger.debug("Bomb ability ready");
@@ -118,39 +139,39 @@ public class Player extends AllObject {
 
         if (isMovingForward ) {
             currentState = PlayerState.MOVING;
-            updateAnimation(0.016);
+            updateAnimation(dt);
         } else {
             currentState = PlayerState.IDLE;
         }
 
         // Update rotation
         if (isRotatingLeft) {
-            rotation -= rotationSpeed;
+            rotation -= rotationSpeed * frames;
         }
         if (isRotatingRight) {
-            rotation += rotationSpeed;
+            rotation += rotationSpeed * frames;
         }
 
         // Update movement
         double angleRad = Math.toRadians(rotation);
         if (isMovingForward) {
-            velocityX += Math.cos(angleRad) * acceleration;
-            velocityY += Math.sin(angleRad) * acceleration;
+            velocityX += Math.cos(angleRad) * acceleration * frames;
+            velocityY += Math.sin(angleRad) * acceleration * frames;
         }
         if (isMovingBackward) {
-            velocityX -= Math.cos(angleRad) * acceleration;
-            velocityY -= Math.sin(angleRad) * acceleration;
+            velocityX -= Math.cos(angleRad) * acceleration * frames;
+            velocityY -= Math.sin(angleRad) * acceleration * frames;
         }
         // Left movement (perpendicular to forward, 90 degrees counterclockwise)
         if (isMovingLeft) {
-            velocityX += Math.cos(angleRad - Math.PI / 2) * acceleration;
-            velocityY += Math.sin(angleRad - Math.PI / 2) * acceleration;
+            velocityX += Math.cos(angleRad - Math.PI / 2) * acceleration * frames;
+            velocityY += Math.sin(angleRad - Math.PI / 2) * acceleration * frames;
         }
 
         // Right movement (perpendicular to forward, 90 degrees clockwise)
         if (isMovingRight) {
-            velocityX += Math.cos(angleRad + Math.PI / 2) * acceleration;
-            velocityY += Math.sin(angleRad + Math.PI / 2) * acceleration;
+            velocityX += Math.cos(angleRad + Math.PI / 2) * acceleration * frames;
+            velocityY += Math.sin(angleRad + Math.PI / 2) * acceleration * frames;
         }
 
         // Limit speed
@@ -161,12 +182,13 @@ public class Player extends AllObject {
         }
 
         // Apply velocity
-        x += velocityX;
-        y += velocityY;
+        x += velocityX * frames;
+        y += velocityY * frames;
 
         // Apply drag
-        velocityX *= deceleration;
-        velocityY *= deceleration;
+        double drag = Math.pow(deceleration, frames);
+        velocityX *= drag;
+        velocityY *= drag;
 
         // Wrap around screen
         if (x < 0) x = screenWidth;
@@ -176,13 +198,13 @@ public class Player extends AllObject {
 
         // Update invulnerability
         if (isInvulnerable) {
-            HitAnimationTimer += 0.016;
+            HitAnimationTimer += dt;
             if (HitAnimationTimer >= Hit_FRAME_DURATION) {
                 HitFrame = (HitFrame + 1) % Hit_FRAME_COUNT;
                 HitAnimationTimer = 0;
             }
 
-            invulnerabilityTimer -= 0.016;
+            invulnerabilityTimer -= dt;
             if (invulnerabilityTimer <= 0) {
                 isInvulnerable = false;
                 HitFrame = 0;
@@ -191,64 +213,54 @@ public class Player extends AllObject {
 
         // Update shooting cooldown
         if (timeSinceLastShot < shootCooldown) {
-            timeSinceLastShot += 0.016;
+            timeSinceLastShot += dt;
         }
     }
 
     @Override
     public void render(GraphicsContext gc) {
+        render(gc, 1.0);
+    }
+
+    public void render(GraphicsContext gc, double alpha) {
         gc.save();
 
+        double renderX = getInterpolatedX(alpha);
+        double renderY = getInterpolatedY(alpha);
+        double renderRotation = getInterpolatedRotation(alpha);
+
         // Calculate drawing position
-        double drawX = x - frameWidth / 2;
-        double drawY = y - frameHeight / 2;
+        double drawX = renderX - frameWidth / 2;
+        double drawY = renderY - frameHeight / 2;
 
         // Apply rotation
-        gc.translate(x, y);
-        gc.rotate(rotation + 90);
-        gc.translate(-x, -y);
+        gc.translate(renderX, renderY);
+        gc.rotate(renderRotation + 90);
+        gc.translate(-renderX, -renderY);
 
         // Apply invulnerability effect
-        if (isInvulnerable && Math.floor(invulnerabilityTimer * 10) % 2 == 0) {
+        if (isFlashing()) {
             gc.setGlobalAlpha(0.5);
         }
 
         // Draw based on current state
-        if (currentState == PlayerState.IDLE && idleImage != null) {
-            gc.drawImage(idleImage, drawX, drawY, frameWidth, frameHeight);
-        } else if (spriteSheet != null) {
+        if (currentState == PlayerState.IDLE && idleSprite != null) {
+            idleSprite.draw(gc, 0, drawX, drawY, frameWidth, frameHeight);
+        } else if (moveSprite != null) {
             // Draw animation frame from sprite sheet
-            double sourceX = currentFrame * frameWidth;
-            gc.drawImage(
-                    spriteSheet,
-                    sourceX, 0, frameWidth, frameHeight,
-                    drawX, drawY, frameWidth, frameHeight
-            );
+            moveSprite.draw(gc, currentFrame, drawX, drawY, frameWidth, frameHeight);
         }
 
         // Draw hit effect if invulnerable
-        if (isInvulnerable && hitImage != null) {
-            double effectSourceX = HitFrame * frameWidth;
+        if (isInvulnerable && hitSprite != null) {
             gc.setGlobalAlpha(0.7); // Make the effect slightly transparent
-//            gc.drawImage(
-//                    hitImage,
-//                    effectSourceX, 0,
-//                    frameWidth, frameHeight,
-//                    drawX, drawY,
-//                    frameWidth, frameHeight
-//            );
+//            hitSprite.draw(gc, HitFrame, drawX, drawY, frameWidth, frameHeight);
         }
 
         // Draw shoot effect
-        if (isShowingShootEffect && shootEffectImage != null) {
-            double effectSourceX = shootEffectFrame * frameWidth;
+        if (isShowingShootEffect && shootEffectSprite != null) {
             gc.setGlobalAlpha(0.8);
-
-
-            gc.drawImage(
-                    shootEffectImage,
-                    effectSourceX, 0,
-                    frameWidth, frameHeight,
+            shootEffectSprite.draw(gc, shootEffectFrame,
                     drawX + 7.5, drawY - frameHeight * 0.3, // Offset upward in the rotated space
                     frameWidth * 0.5, frameHeight * 0.5 // Maintain the smaller size
             );
@@ -258,6 +270,83 @@ public class Player extends AllObject {
         gc.restore();
     }
 
+    // Interpolate between the last two steps, but snap when we wrapped around the screen
+    public double getInterpolatedX(double alpha) {
+        if (Math.abs(x - prevX) < screenWidth / 2 && Math.abs(y - prevY) < screenHeight / 2) {
+            return prevX + (x - prevX) * alpha;
+        }
+        return x;
+    }
+
+    public double getInterpolatedY(double alpha) {
+        if (Math.abs(x - prevX) < screenWidth / 2 && Math.abs(y - prevY) < screenHeight / 2) {
+            return prevY + (y - prevY) * alpha;
+        }
+        return y;
+    }
+
+    public double getInterpolatedRotation(double alpha) {
+        return prevRotation + (rotation - prevRotation) * alpha;
+    }
+
+    // Everything update() reads, so a restored player carries on mid-animation and mid-cooldown
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.putDouble(x).putDouble(y).putDouble(rotation);
+        out.putDouble(prevX).putDouble(prevY).putDouble(prevRotation);
+        out.putDouble(velocityX).putDouble(velocityY);
+        out.putInt(lives);
+        out.put((byte) (isInvulnerable ? 1 : 0));
+        out.putDouble(invulnerabilityTimer);
+        out.putDouble(timeSinceLastShot);
+        out.putDouble(bombCooldownTimer);
+        out.put((byte) (canUseBomb ? 1 : 0));
+        out.put((byte) currentState.ordinal());
+        out.putInt(currentFrame);
+        out.putInt(HitFrame).putDouble(HitAnimationTimer);
+        out.put((byte) (isShowingShootEffect ? 1 : 0));
+        out.putInt(shootEffectFrame).putDouble(shootEffectTimer);
+        out.put((byte) ((isMovingForward ? 1 : 0) | (isMovingBackward ? 2 : 0) | (isMovingLeft ? 4 : 0)
+                | (isMovingRight ? 8 : 0) | (isRotatingLeft ? 16 : 0) | (isRotatingRight ? 32 : 0)));
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        x = in.getDouble();
+        y = in.getDouble();
+        rotation = in.getDouble();
+        prevX = in.getDouble();
+        prevY = in.getDouble();
+        prevRotation = in.getDouble();
+        velocityX = in.getDouble();
+        velocityY = in.getDouble();
+        lives = in.getInt();
+        isInvulnerable = in.get() != 0;
+        invulnerabilityTimer = in.getDouble();
+        timeSinceLastShot = in.getDouble();
+        bombCooldownTimer = in.getDouble();
+        canUseBomb = in.get() != 0;
+        int state = in.get();
+        PlayerState[] states = PlayerState.values();
+        if (state < 0 || state >= states.length) {
+            throw new IllegalArgumentException("Unknown player state " + state);
+        }
+        currentState = states[state];
+        currentFrame = in.getInt();
+        HitFrame = in.getInt();
+        HitAnimationTimer = in.getDouble();
+        isShowingShootEffect = in.get() != 0;
+        shootEffectFrame = in.getInt();
+        shootEffectTimer = in.getDouble();
+        int movement = in.get();
+        isMovingForward = (movement & 1) != 0;
+        isMovingBackward = (movement & 2) != 0;
+        isMovingLeft = (movement & 4) != 0;
+        isMovingRight = (movement & 8) != 0;
+        isRotatingLeft = (movement & 16) != 0;
+        isRotatingRight = (movement & 32) != 0;
+    }
+
     // Bomb ability methods
     public boolean canUseNuke() {
         return canUseBomb;
@@ -278,32 +367,32 @@ public class Player extends AllObject {
     // Existing movement setters...
     public void setMovingForward(boolean moving) {
         this.isMovingForward = moving;
-        logger.debug("Moving forward");
+        logger.trace("Moving forward: {}", moving);
     }
 
     public void setMovingBackward(boolean moving) {
         this.isMovingBackward = moving;
-        logger.debug("Moving backward");
+        logger.trace("Moving backward: {}", moving);
     }
 
     public void setMovingLeft(boolean moving) {
         this.isMovingLeft = moving;
-        logger.debug("Moving left");
+        logger.trace("Moving left: {}", moving);
     }
 
     public void setMovingRight(boolean moving) {
         this.isMovingRight = moving;
-        logger.debug("Moving right");
+        logger.trace("Moving right: {}", moving);
     }
 
     public void setRotatingLeft(boolean rotating) {
         this.isRotatingLeft = rotating;
-        logger.debug("Rotating left");
+        logger.trace("Rotating left: {}", rotating);
     }
 
     public void setRotatingRight(boolean rotating) {
         this.isRotatingRight = rotating;
-        logger.debug("Rotating right");
+        logger.trace("Rotating right: {}", rotating);
     }
 
     // Shooting methods
@@ -333,7 +422,11 @@ public class Player extends AllObject {
         double deltaX = mouseX - this.getX();
         double deltaY = mouseY - this.getY();
         this.rotation = Math.toDegrees(Math.atan2(deltaY, deltaX));
-        logger.info("Rotating to cursor - x: {}, y: {}, rotation: {}", mouseX, mouseY, rotation);
+        this.prevRotation = rotation;
+        // Called for every mouse move; guard so the doubles aren't boxed when trace is off
+        if (logger.isTraceEnabled()) {
+            logger.trace("Rotating to cursor - x: {}, y: {}, rotation: {}", mouseX, mouseY, rotation);
+        }
     }
 
     public boolean isInvulnerable() {
@@ -352,4 +445,40 @@ public class Player extends AllObject {
         return rotation;
     }
 
+    // Drawing state, for renderers outside the model
+
+    public boolean isMoving() {
+        return currentState == PlayerState.MOVING;
+    }
+
+    public int getAnimationFrame() {
+        return currentFrame;
+    }
+
+    // Half-transparent on alternate tenths of a second while invulnerable
+    public boolean isFlashing() {
+        return isInvulnerable && Math.floor(invulnerabilityTimer * 10) % 2 == 0;
+    }
+
+    public boolean isShowingShootEffect() {
+        return isShowingShootEffect;
+    }
+
+    public int getShootEffectFrame() {
+        return shootEffectFrame;
+    }
+
+    // Null in headless mode
+    public SpriteAtlas.Sprite getIdleSprite() {
+        return idleSprite;
+    }
+
+    public SpriteAtlas.Sprite getMoveSprite() {
+        return moveSprite;
+    }
+
+    public SpriteAtlas.Sprite getShootEffectSprite() {
+        return shootEffectSprite;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package se233.Asteroids_Project.view;
+
+import se233.Asteroids_Project.model.SpriteAtlas;
+import se233.Asteroids_Project.model.Entities.Player;
+
+// Turns the player into draw commands from the state Player exposes, so the model doesn't
+// depend on the view. Draws the same thing as Player.render().
+public final class PlayerRenderer {
+    private PlayerRenderer() {
+    }
+
+    // alpha 0 places the ship where it was before the last step, 1 where it is now
+    public static void submit(Player player, RenderQueue queue, double alpha) {
+        double renderX = player.getInterpolatedX(alpha);
+        double renderY = player.getInterpolatedY(alpha);
+        double angle = player.getInterpolatedRotation(alpha) + 90;
+        double width = player.getWidth();
+        double height = player.getHeight();
+        double drawX = renderX - width / 2;
+        double drawY = renderY - height / 2;
+
+        double shipAlpha = player.isFlashing() ? 0.5 : 1.0;
+        SpriteAtlas.Sprite ship = player.isMoving() ? player.getMoveSprite() : player.getIdleSprite();
+        int frame = player.isMoving() ? player.getAnimationFrame() : 0;
+        if (ship != null) {
+            submitFrame(queue, ship, frame, drawX, drawY, width, height, angle, shipAlpha);
+        }
+
+        SpriteAtlas.Sprite shootEffect = player.getShootEffectSprite();
+        if (player.isShowingShootEffect() && shootEffect != null) {
+            // Same placement as Player.render(): offset upward in the ship's rotated space
+            double effectWidth = width * 0.5;
+            double effectHeight = height * 0.5;
+            double offsetX = 7.5 - width / 2 + effectWidth / 2;
+            double offsetY = -height * 0.8 + effectHeight / 2;
+            double rad = Math.toRadians(angle);
+            double cos = Math.cos(rad);
+            double sin = Math.sin(rad);
+            double centerX = renderX + offsetX * cos - offsetY * sin;
+            double centerY = renderY + offsetX * sin + offsetY * cos;
+            submitFrame(queue, shootEffect, player.getShootEffectFrame(),
+                    centerX - effectWidth / 2, centerY - effectHeight / 2, effectWidth, effectHeight, angle, 0.8);
+        }
+    }
+
+    private static void submitFrame(RenderQueue queue, SpriteAtlas.Sprite sprite, int frame,
+                                    double dx, double dy, double dw, double dh, double angle, double alpha) {
+        queue.submit(RenderQueue.LAYER_PLAYER, sprite.getImage(),
+                sprite.getSourceX(frame), sprite.getSourceY(frame), sprite.getFrameWidth(), sprite.getFrameHeight(),
+                dx, dy, dw, dh, angle, alpha);
+    }
+}
@@ -0,0 +1,73 @@
+package se233.Asteroids_Project.view;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import se233.Asteroids_Project.model.LatencyHistogram;
+import se233.Asteroids_Project.model.TickProfiler;
+
+import java.util.Locale;
+
+// Table of TickProfiler phases (p50/p99/max in microseconds) and entity counts, drawn on its
+// own layer. The numbers are redrawn a few times per second, not every frame, so they stay
+// readable and the overlay costs next to nothing.
+public class ProfilerOverlay {
+    private static final Font FONT = Font.font("Monospaced", 12);
+    private static final Color BACKDROP = new Color(0, 0, 0, 0.6);
+    private static final double REFRESH_SECONDS = 0.5;
+    private static final double LINE_HEIGHT = 14;
+    private static final double WIDTH = 330;
+
+    private final CanvasLayer layer;
+    private final TickProfiler profiler;
+    private boolean visible;
+    private double sinceRefresh = REFRESH_SECONDS;
+
+    public ProfilerOverlay(CanvasLayer layer, TickProfiler profiler) {
+        this.layer = layer;
+        this.profiler = profiler;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        sinceRefresh = REFRESH_SECONDS;
+        layer.invalidate();
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void update(double dt) {
+        sinceRefresh += dt;
+        if (visible && sinceRefresh >= REFRESH_SECONDS) {
+            sinceRefresh = 0;
+            layer.invalidate();
+        }
+        // Cleared on the frame after being hidden, then left alone
+        if (!layer.beginFrame() || !visible) return;
+
+        GraphicsContext gc = layer.getGraphicsContext();
+        TickProfiler.Phase[] phases = TickProfiler.Phase.values();
+        double x = layer.getCanvas().getWidth() - WIDTH - 10;
+        double y = 10;
+        gc.setFill(BACKDROP);
+        gc.fillRect(x, y, WIDTH, (phases.length + 3) * LINE_HEIGHT + 8);
+
+        gc.setFill(Color.LIGHTGREEN);
+        gc.setFont(FONT);
+        gc.setTextAlign(TextAlignment.LEFT);
+        double line = y + LINE_HEIGHT;
+        gc.fillText(String.format(Locale.ROOT, "%-18s %8s %8s %8s", "phase (us)", "p50", "p99", "max"), x + 6, line);
+        for (TickProfiler.Phase phase : phases) {
+            LatencyHistogram h = profiler.getHistogram(phase);
+            line += LINE_HEIGHT;
+            gc.fillText(String.format(Locale.ROOT, "%-18s %8.1f %8.1f %8.1f", phase,
+                    h.percentile(0.50) / 1000.0, h.percentile(0.99) / 1000.0, h.getMax() / 1000.0), x + 6, line);
+        }
+        line += LINE_HEIGHT * 2;
+        gc.fillText(String.format(Locale.ROOT, "entities %d  peak %d  mean %.0f",
+                profiler.getEntities(), profiler.getPeakEntities(), profiler.getMeanEntities()), x + 6, line);
+    }
+}
@@ -0,0 +1,69 @@
+package se233.Asteroids_Project.view;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import se233.Asteroids_Project.model.AllObject;
+import se233.Asteroids_Project.model.Asset.ProjectileStore;
+import se233.Asteroids_Project.model.Asset.ProjectileType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Turns a ProjectileStore into draw commands. The store only knows who fired its projectiles;
+// the look is the original projectile classes': each type's prototype draws itself once onto a
+// scratch canvas, centred and heading along angle 0, and every projectile of that type is then
+// a blit of the snapshot rotated to its heading. Must be created on the FX thread.
+public class ProjectileRenderer {
+    // Only passed to the prototypes' constructors; drawing doesn't depend on it
+    private static final double STAGE_WIDTH = 800;
+    private static final double STAGE_HEIGHT = 600;
+
+    private record Sprite(WritableImage image, double side) {
+    }
+
+    private final Map<ProjectileType, Sprite> sprites = new EnumMap<>(ProjectileType.class);
+
+    public ProjectileRenderer() {
+        Canvas scratch = new Canvas(1, 1);
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        for (ProjectileType type : ProjectileType.values()) {
+            sprites.put(type, render(type, scratch, parameters));
+        }
+    }
+
+    // alpha 0 places projectiles where they were before the last step, 1 where they are now
+    public void submit(ProjectileStore store, RenderQueue queue, int layer, double alpha) {
+        Sprite sprite = sprites.get(store.getType());
+        double side = sprite.side();
+        double half = side / 2;
+        for (int i = 0; i < store.size(); i++) {
+            double x = store.getStartX(i) + (store.getX(i) - store.getStartX(i)) * alpha;
+            double y = store.getStartY(i) + (store.getY(i) - store.getStartY(i)) * alpha;
+            queue.submit(layer, sprite.image(), 0, 0, side, side,
+                    x - half, y - half, side, side, store.getAngle(i), 1.0);
+        }
+    }
+
+    // Large enough for the prototype's box at any offset from its anchor, so a prototype drawn
+    // from its top-left and one drawn around its centre both fit
+    private static Sprite render(ProjectileType type, Canvas scratch, SnapshotParameters parameters) {
+        AllObject prototype = type.prototype(0, 0, STAGE_WIDTH, STAGE_HEIGHT);
+        double side = Math.max(1, Math.ceil(2 * Math.hypot(prototype.getWidth(), prototype.getHeight())));
+        scratch.setWidth(side);
+        scratch.setHeight(side);
+        GraphicsContext gc = scratch.getGraphicsContext2D();
+        gc.clearRect(0, 0, side, side);
+        gc.save();
+        gc.translate(side / 2, side / 2);
+        prototype.render(gc);
+        gc.restore();
+
+        parameters.setViewport(new Rectangle2D(0, 0, side, side));
+        return new Sprite(scratch.snapshot(parameters, null), side);
+    }
+}
@@ -0,0 +1,185 @@
+package se233.Asteroids_Project.model.Asset;
+
+import se233.Asteroids_Project.model.Persistent;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Projectiles stored as parallel primitive arrays instead of one object per bullet.
+// Removal swaps the last live projectile into the freed slot, so order is not preserved
+// and callers iterating while removing must re-check the same index. Speed, lifetime and
+// radius are those of the store's type; how its projectiles look is up to the view.
+public class ProjectileStore implements Persistent {
+    private final ProjectileType type;
+    private final double speed;          // pixels per second
+    private final double lifetime;       // seconds
+    private final double radius;
+    private final double stageWidth;
+    private final double stageHeight;
+
+    private double[] x;
+    private double[] y;
+    private double[] vx;
+    private double[] vy;
+    private double[] life;
+    private int size;
+    private double lastStep;  // dt of the last update, for drawing between steps
+
+    public ProjectileStore(ProjectileType type, double stageWidth, double stageHeight, int initialCapacity) {
+        this.type = type;
+        this.speed = type.speed();
+        this.lifetime = type.lifetime();
+        this.radius = type.radius();
+        this.stageWidth = stageWidth;
+        this.stageHeight = stageHeight;
+        this.x = new double[initialCapacity];
+        this.y = new double[initialCapacity];
+        this.vx = new double[initialCapacity];
+        this.vy = new double[initialCapacity];
+        this.life = new double[initialCapacity];
+    }
+
+    // angle in degrees, matching entity rotation
+    public void spawn(double px, double py, double angle) {
+        if (size == x.length) {
+            grow();
+        }
+        double angleRad = Math.toRadians(angle);
+        x[size] = px;
+        y[size] = py;
+        vx[size] = Math.cos(angleRad) * speed;
+        vy[size] = Math.sin(angleRad) * speed;
+        life[size] = lifetime;
+        size++;
+    }
+
+    // count parallel shots centred on the aim line, spacing pixels apart
+    public void spawnMultiShot(double centerX, double centerY, double angle, int count, double spacing) {
+        double angleRad = Math.toRadians(angle);
+        double perpX = -Math.sin(angleRad);
+        double perpY = Math.cos(angleRad);
+        for (int i = 0; i < count; i++) {
+            double offset = (i - (count - 1) / 2.0) * spacing;
+            spawn(centerX + perpX * offset, centerY + perpY * offset, angle);
+        }
+    }
+
+    // Move, wrap and expire every projectile in one pass
+    public void update(double dt) {
+        lastStep = dt;
+        int i = 0;
+        while (i < size) {
+            double remaining = life[i] - dt;
+            if (remaining <= 0) {
+                remove(i);
+                continue;
+            }
+            life[i] = remaining;
+
+            double nx = x[i] + vx[i] * dt;
+            double ny = y[i] + vy[i] * dt;
+            if (nx < 0) nx += stageWidth;
+            else if (nx > stageWidth) nx -= stageWidth;
+            if (ny < 0) ny += stageHeight;
+            else if (ny > stageHeight) ny -= stageHeight;
+            x[i] = nx;
+            y[i] = ny;
+            i++;
+        }
+    }
+
+    public void remove(int index) {
+        int last = --size;
+        x[index] = x[last];
+        y[index] = y[last];
+        vx[index] = vx[last];
+        vy[index] = vy[last];
+        life[index] = life[last];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Circle test against a target described by its centre and radius
+    public boolean overlaps(int index, double centerX, double centerY, double targetRadius) {
+        double dx = x[index] - centerX;
+        double dy = y[index] - centerY;
+        double reach = radius + targetRadius;
+        return dx * dx + dy * dy <= reach * reach;
+    }
+
+    // Live projectiles only; speed, lifetime and radius come from the type
+    @Override
+    public void writeState(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putDouble(x[i]).putDouble(y[i]).putDouble(vx[i]).putDouble(vy[i]).putDouble(life[i]);
+        }
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        int count = in.getInt();
+        // Five doubles per projectile
+        if (count < 0 || count > in.remaining() / 40) {
+            throw new IllegalArgumentException("Invalid projectile count " + count);
+        }
+        size = 0;
+        while (x.length < count) {
+            grow();
+        }
+        for (int i = 0; i < count; i++) {
+            x[i] = in.getDouble();
+            y[i] = in.getDouble();
+            vx[i] = in.getDouble();
+            vy[i] = in.getDouble();
+            life[i] = in.getDouble();
+        }
+        size = count;
+    }
+
+    public ProjectileType getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    // Where a projectile was before the last update, as if it had flown straight; a projectile
+    // that wrapped starts just off its new edge rather than across the stage
+    public double getStartX(int index) {
+        return x[index] - vx[index] * lastStep;
+    }
+
+    public double getStartY(int index) {
+        return y[index] - vy[index] * lastStep;
+    }
+
+    // Heading in degrees, matching entity rotation
+    public double getAngle(int index) {
+        return Math.toDegrees(Math.atan2(vy[index], vx[index]));
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        life = Arrays.copyOf(life, capacity);
+    }
+}
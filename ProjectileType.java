@@ -0,0 +1,56 @@
+package se233.Asteroids_Project.model.Asset;
+
+import se233.Asteroids_Project.model.AllObject;
+
+// Who fired a projectile, and its tuning: speed in px/s, lifetime in seconds and collision
+// radius in px, independent of the tick rate. ProjectileStore moves every projectile of a type
+// from these. The original projectile classes only provide the look: the view draws a
+// prototype of each type to get its sprite.
+public enum ProjectileType {
+    PLAYER(600, 1.2, 3) {
+        @Override
+        public AllObject prototype(double x, double y, double stageWidth, double stageHeight) {
+            return new PlayerProjectile(x, y, 0, stageWidth, stageHeight);
+        }
+    },
+    MINION(300, 2.0, 4) {
+        @Override
+        public AllObject prototype(double x, double y, double stageWidth, double stageHeight) {
+            return new MinionProjectile(x, y, 0, stageWidth, stageHeight);
+        }
+    },
+    BOSS(240, 3.0, 5) {
+        // The boss only fires multi-shots; a one-bullet pattern is a single plain shot
+        @Override
+        public AllObject prototype(double x, double y, double stageWidth, double stageHeight) {
+            return BossProjectile.createMultiShotPattern(x, y, 0, stageWidth, stageHeight, 1, 0)[0];
+        }
+    };
+
+    private final double speed;
+    private final double lifetime;
+    private final double radius;
+
+    ProjectileType(double speed, double lifetime, double radius) {
+        this.speed = speed;
+        this.lifetime = lifetime;
+        this.radius = radius;
+    }
+
+    // One of the original projectiles at (x, y) heading along angle 0, for drawing
+    public abstract AllObject prototype(double x, double y, double stageWidth, double stageHeight);
+
+    // Pixels per second
+    public double speed() {
+        return speed;
+    }
+
+    // Seconds
+    public double lifetime() {
+        return lifetime;
+    }
+
+    public double radius() {
+        return radius;
+    }
+}
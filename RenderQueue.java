@@ -0,0 +1,225 @@
+package se233.Asteroids_Project.view;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Collects draw commands for a frame and issues them sorted by layer, then texture/paint, then
+// alpha, so consecutive draws share state. A rotated draw applies one combined transform on
+// top of the caller's, instead of a translate/rotate/translate per object. Commands are stored
+// in parallel arrays and sorted as packed long keys, so a steady-state frame allocates nothing.
+// With a RotatedSpriteCache attached, rotated sprites are blitted from pre-rotated frames instead.
+// A queue can also carry where each command started the last step (setStart); flush(gc, alpha)
+// then draws every command interpolated between the two.
+public class RenderQueue {
+    // Layers, drawn bottom to top
+    public static final int LAYER_ENTITIES = 0;
+    public static final int LAYER_PROJECTILES = 1;
+    public static final int LAYER_PLAYER = 2;
+    public static final int LAYER_EFFECTS = 3;
+
+    private static final int KIND_IMAGE = 0;
+    private static final int KIND_OVAL = 1;
+
+    // Sort key layout: layer(4) | resource id(20) | alpha(8) | command index(20)
+    private static final int INDEX_BITS = 20;
+    private static final int MAX_COMMANDS = 1 << INDEX_BITS;
+
+    // Numbered in the order this frame first used them, so there are never more ids than
+    // commands and they fit their field without wrapping
+    private final Map<Object, Integer> resourceIds = new IdentityHashMap<>();
+
+    private RotatedSpriteCache rotationCache;
+
+    private int size;
+    private int[] kinds = new int[256];
+    private Object[] resources = new Object[256];   // Image or Paint
+    private double[] sx = new double[256], sy = new double[256], sw = new double[256], sh = new double[256];
+    private double[] dx = new double[256], dy = new double[256], dw = new double[256], dh = new double[256];
+    private double[] rotations = new double[256];
+    private double[] alphas = new double[256];
+    private double[] startX = new double[256], startY = new double[256], startRotations = new double[256];
+    private boolean hasStart;
+    private long[] keys = new long[256];
+
+    // Statistics of the last flush
+    private int stateChanges;
+
+    // Draws a sub-rectangle of image into the destination box, rotated (degrees) about the box centre
+    public void submit(int layer, Image image,
+                       double srcX, double srcY, double srcW, double srcH,
+                       double dstX, double dstY, double dstW, double dstH,
+                       double rotation, double alpha) {
+        if (image == null) return;
+        int i = add(layer, KIND_IMAGE, image, alpha);
+        sx[i] = srcX;
+        sy[i] = srcY;
+        sw[i] = srcW;
+        sh[i] = srcH;
+        dx[i] = dstX;
+        dy[i] = dstY;
+        dw[i] = dstW;
+        dh[i] = dstH;
+        rotations[i] = rotation;
+    }
+
+    public void submitOval(int layer, Paint fill, double centerX, double centerY, double radius, double alpha) {
+        int i = add(layer, KIND_OVAL, fill, alpha);
+        dx[i] = centerX - radius;
+        dy[i] = centerY - radius;
+        dw[i] = radius * 2;
+        dh[i] = radius * 2;
+        rotations[i] = 0;
+    }
+
+    // Pre-rotated frames for rotated sprites, or null to rotate with the transform
+    public void setRotationCache(RotatedSpriteCache rotationCache) {
+        this.rotationCache = rotationCache;
+    }
+
+    // Records start's positions and rotations as where this queue's commands began. start must
+    // hold the same commands in the same order, submitted for the previous state; if it doesn't,
+    // the queue is drawn at its own positions only.
+    public void setStart(RenderQueue start) {
+        hasStart = start.size == size;
+        for (int i = 0; hasStart && i < size; i++) {
+            hasStart = start.kinds[i] == kinds[i] && start.resources[i] == resources[i];
+        }
+        if (!hasStart) return;
+        System.arraycopy(start.dx, 0, startX, 0, size);
+        System.arraycopy(start.dy, 0, startY, 0, size);
+        System.arraycopy(start.rotations, 0, startRotations, 0, size);
+    }
+
+    public void flush(GraphicsContext gc) {
+        flush(gc, 1.0);
+    }
+
+    // alpha 0 draws the start positions, 1 the submitted ones
+    public void flush(GraphicsContext gc, double alpha) {
+        boolean interpolate = hasStart && alpha < 1;
+        Arrays.sort(keys, 0, size);
+        stateChanges = 0;
+
+        gc.save();
+        Object currentResource = null;
+        double currentAlpha = -1;
+
+        for (int k = 0; k < size; k++) {
+            int i = (int) (keys[k] & (MAX_COMMANDS - 1));
+            double x = dx[i];
+            double y = dy[i];
+            double rotation = rotations[i];
+            if (interpolate) {
+                x = startX[i] + (x - startX[i]) * alpha;
+                y = startY[i] + (y - startY[i]) * alpha;
+                // Turn the short way round
+                double turn = ((rotation - startRotations[i]) % 360 + 540) % 360 - 180;
+                rotation = startRotations[i] + turn * alpha;
+            }
+
+            if (alphas[i] != currentAlpha) {
+                currentAlpha = alphas[i];
+                gc.setGlobalAlpha(currentAlpha);
+                stateChanges++;
+            }
+
+            if (kinds[i] == KIND_OVAL) {
+                if (resources[i] != currentResource) {
+                    currentResource = resources[i];
+                    gc.setFill((Paint) currentResource);
+                    stateChanges++;
+                }
+                gc.fillOval(x, y, dw[i], dh[i]);
+                continue;
+            }
+
+            currentResource = resources[i];
+            Image image = (Image) currentResource;
+            if (rotation == 0) {
+                gc.drawImage(image, sx[i], sy[i], sw[i], sh[i], x, y, dw[i], dh[i]);
+            } else if (rotationCache != null && Math.abs(dw[i] * sh[i] - dh[i] * sw[i]) < 1e-6) {
+                // Uniformly scaled: blit the pre-rotated frame, scaled like the original
+                Image rotated = rotationCache.get(image, sx[i], sy[i], sw[i], sh[i], rotation);
+                double side = RotatedSpriteCache.getRotatedSize(sw[i], sh[i]) * dw[i] / sw[i];
+                gc.drawImage(rotated, x + (dw[i] - side) / 2, y + (dh[i] - side) / 2, side, side);
+            } else {
+                // Rotate about the destination centre in a single transform, composed with the
+                // caller's so a scaled or translated canvas still draws in its own space
+                double rad = Math.toRadians(rotation);
+                double cos = Math.cos(rad);
+                double sin = Math.sin(rad);
+                double halfW = dw[i] / 2;
+                double halfH = dh[i] / 2;
+                gc.save();
+                gc.transform(cos, sin, -sin, cos, x + halfW, y + halfH);
+                gc.drawImage(image, sx[i], sy[i], sw[i], sh[i], -halfW, -halfH, dw[i], dh[i]);
+                gc.restore();
+            }
+        }
+        gc.restore();
+    }
+
+    public void clear() {
+        // Drop references so images and paints aren't kept alive by stale slots
+        Arrays.fill(resources, 0, size, null);
+        resourceIds.clear();
+        size = 0;
+        hasStart = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Alpha and fill changes issued by the last flush
+    public int getStateChanges() {
+        return stateChanges;
+    }
+
+    private int add(int layer, int kind, Object resource, double alpha) {
+        if (size == keys.length) {
+            grow();
+        }
+        int i = size++;
+        kinds[i] = kind;
+        resources[i] = resource;
+        alphas[i] = alpha;
+
+        Integer id = resourceIds.get(resource);
+        if (id == null) {
+            id = resourceIds.size();
+            resourceIds.put(resource, id);
+        }
+        long alphaBits = Math.round(Math.max(0, Math.min(1, alpha)) * 255);
+        keys[i] = ((long) layer & 0xF) << 48 | (long) id << 28 | alphaBits << INDEX_BITS | i;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        if (capacity > MAX_COMMANDS) {
+            throw new IllegalStateException("Render queue is limited to " + MAX_COMMANDS + " commands per frame");
+        }
+        kinds = Arrays.copyOf(kinds, capacity);
+        resources = Arrays.copyOf(resources, capacity);
+        sx = Arrays.copyOf(sx, capacity);
+        sy = Arrays.copyOf(sy, capacity);
+        sw = Arrays.copyOf(sw, capacity);
+        sh = Arrays.copyOf(sh, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        dw = Arrays.copyOf(dw, capacity);
+        dh = Arrays.copyOf(dh, capacity);
+        rotations = Arrays.copyOf(rotations, capacity);
+        alphas = Arrays.copyOf(alphas, capacity);
+        startX = Arrays.copyOf(startX, capacity);
+        startY = Arrays.copyOf(startY, capacity);
+        startRotations = Arrays.copyOf(startRotations, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+}
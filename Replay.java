@@ -0,0 +1,259 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.scene.input.KeyCode;
+import se233.Asteroids_Project.model.Persistent;
+import se233.Asteroids_Project.model.World;
+import se233.asteroidgame.model.KeyBindings;
+import se233.asteroidgame.model.KeyBindings.Action;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+// A recorded game: the RNG state it started from, the key bindings and held keys at that
+// moment, and every input event tagged with the tick it was applied on. Playing it into a
+// fresh world repeats the game tick for tick, which play() checks against a hash of the
+// world state the recording ended on.
+//
+// File layout (written by ReplayRecorder), numbers big-endian, counts and ticks as varints:
+//   int magic "ASRP", short version, double step, double width, double height, long rngState,
+//   per Action: count + KeyCode ordinals, held keys: count + ordinals,
+//   events: tick delta, byte type, then a key ordinal or two doubles (x, y),
+//   end: tick delta to the final tick, byte END, int CRC32 of the final world's writeState
+public final class Replay {
+    static final int MAGIC = 0x41535250;
+    static final int VERSION = 3;
+    static final int END = 0x7F;
+
+    private static final KeyCode[] KEY_CODES = KeyCode.values();
+
+    private final double step;
+    private final double width;
+    private final double height;
+    private final long rngState;
+    private final KeyBindings keyBindings;
+    private final KeyCode[] heldKeys;
+    private final long totalTicks;
+    private final int endStateHash;
+
+    private final int eventCount;
+    private final long[] eventTicks;
+    private final int[] types;
+    private final int[] keys;
+    private final double[] xs;
+    private final double[] ys;
+
+    private Replay(double step, double width, double height, long rngState, KeyBindings keyBindings,
+                   KeyCode[] heldKeys, long totalTicks, int endStateHash, int eventCount, long[] eventTicks,
+                   int[] types, int[] keys, double[] xs, double[] ys) {
+        this.step = step;
+        this.width = width;
+        this.height = height;
+        this.rngState = rngState;
+        this.keyBindings = keyBindings;
+        this.heldKeys = heldKeys;
+        this.totalTicks = totalTicks;
+        this.endStateHash = endStateHash;
+        this.eventCount = eventCount;
+        this.eventTicks = eventTicks;
+        this.types = types;
+        this.keys = keys;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public static Replay read(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a replay");
+            }
+            int version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay version " + version + " in " + file);
+            }
+            double step = in.readDouble();
+            double width = in.readDouble();
+            double height = in.readDouble();
+            long rngState = in.readLong();
+
+            KeyBindings keyBindings = new KeyBindings();
+            for (Action action : Action.values()) {
+                keyBindings.bind(action, readKeys(in));
+            }
+            KeyCode[] heldKeys = readKeys(in);
+
+            int capacity = 256;
+            long[] eventTicks = new long[capacity];
+            int[] types = new int[capacity];
+            int[] keys = new int[capacity];
+            double[] xs = new double[capacity];
+            double[] ys = new double[capacity];
+            int count = 0;
+            long tick = 0;
+            while (true) {
+                tick += readVarLong(in);
+                int type = in.readByte();
+                if (type == END) break;
+                if (count == capacity) {
+                    capacity *= 2;
+                    eventTicks = Arrays.copyOf(eventTicks, capacity);
+                    types = Arrays.copyOf(types, capacity);
+                    keys = Arrays.copyOf(keys, capacity);
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                eventTicks[count] = tick;
+                types[count] = type;
+                switch (type) {
+                    case InputQueue.KEY_PRESSED:
+                    case InputQueue.KEY_RELEASED:
+                        keys[count] = (int) readVarLong(in);
+                        break;
+                    case InputQueue.MOUSE_MOVED:
+                    case InputQueue.MOUSE_CLICKED:
+                        xs[count] = in.readDouble();
+                        ys[count] = in.readDouble();
+                        break;
+                    default:
+                        throw new IOException("Corrupt replay " + file + ": event type " + type);
+                }
+                count++;
+            }
+            int endStateHash = in.readInt();
+            return new Replay(step, width, height, rngState, keyBindings, heldKeys, tick,
+                    endStateHash, count, eventTicks, types, keys, xs, ys);
+        }
+    }
+
+    // Replays the game into world, which should be a fresh headless world of the recorded size.
+    // realTime paces ticks at the recorded step; otherwise they run back to back. Returns the
+    // number of ticks stepped; throws IllegalStateException when the world ends up in a
+    // different state than the recorded one.
+    public long play(World world, boolean realTime) {
+        TickInput input = new TickInput(world, keyBindings);
+        world.getRandom().setState(rngState);
+        world.startNewGame();
+        for (KeyCode key : heldKeys) {
+            input.getKeys().add(key);
+        }
+        input.getKeys().endTick();
+
+        long stepNanos = (long) (step * 1_000_000_000L);
+        long nextTick = System.nanoTime();
+        world.step(step);
+
+        int event = 0;
+        for (long tick = 1; tick < totalTicks; tick++) {
+            if (realTime) {
+                nextTick += stepNanos;
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            for (; event < eventCount && eventTicks[event] == tick; event++) {
+                dispatch(event, input, tick);
+            }
+            input.apply();
+            world.step(step);
+        }
+
+        int hash = stateHash(world);
+        if (hash != endStateHash) {
+            throw new IllegalStateException(String.format("Replay diverged after %d ticks: end state %08x, recorded %08x",
+                    totalTicks, hash, endStateHash));
+        }
+        return totalTicks;
+    }
+
+    private void dispatch(int event, TickInput input, long tick) {
+        switch (types[event]) {
+            case InputQueue.KEY_PRESSED:
+                input.keyPressed(KEY_CODES[keys[event]], tick);
+                break;
+            case InputQueue.KEY_RELEASED:
+                input.keyReleased(KEY_CODES[keys[event]], tick);
+                break;
+            case InputQueue.MOUSE_MOVED:
+                input.mouseMoved(xs[event], ys[event], tick);
+                break;
+            case InputQueue.MOUSE_CLICKED:
+                input.mouseClicked(xs[event], ys[event], tick);
+                break;
+        }
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // CRC32 of everything the world writes into a save
+    static int stateHash(World world) {
+        ByteBuffer state = Persistent.encode(world, ByteBuffer.allocate(64 * 1024));
+        CRC32 crc = new CRC32();
+        crc.update(state);
+        return (int) crc.getValue();
+    }
+
+    static void writeKeys(DataOutput out, KeyCode[] keys) throws IOException {
+        writeVarLong(out, keys.length);
+        for (KeyCode key : keys) {
+            writeVarLong(out, key.ordinal());
+        }
+    }
+
+    private static KeyCode[] readKeys(DataInput in) throws IOException {
+        KeyCode[] keys = new KeyCode[(int) readVarLong(in)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = KEY_CODES[(int) readVarLong(in)];
+        }
+        return keys;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, high bit set on all but the last
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,170 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.scene.input.KeyCode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.World;
+import se233.asteroidgame.model.KeyBindings.Action;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes each game's input to a replay file in the given directory (see Replay for the
+// format) while forwarding every event to the TickInput. A recording starts with begin() when
+// a new game starts and ends at the next one or at finish(), which records a hash of the state
+// the world ended on. With no directory it only forwards. Called from the simulation thread,
+// or with the simulation held between ticks.
+public class ReplayRecorder implements InputQueue.Handler {
+    private static final Logger logger = LogManager.getLogger(ReplayRecorder.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final TickInput delegate;
+    private final double step;
+    private final Path directory;
+
+    private DataOutputStream out;
+    private Path file;
+    private long tick;
+    private long lastEventTick;
+    private int events;
+
+    public ReplayRecorder(TickInput delegate, double step, String directory) {
+        this.delegate = delegate;
+        this.step = step;
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    }
+
+    // Whether begin() will record at all
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public boolean isRecording() {
+        return out != null;
+    }
+
+    // Call just before world.startNewGame(), so the recorded RNG state is the one it spawns from
+    public synchronized void begin(World world) {
+        finish(world);
+        if (directory == null) return;
+        try {
+            Files.createDirectories(directory);
+            file = directory.resolve("replay-" + LocalDateTime.now().format(FILE_TIME) + ".replay");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(Replay.MAGIC);
+            out.writeShort(Replay.VERSION);
+            out.writeDouble(step);
+            out.writeDouble(world.getWidth());
+            out.writeDouble(world.getHeight());
+            out.writeLong(world.getRandom().getState());
+            for (Action action : Action.values()) {
+                Replay.writeKeys(out, delegate.getKeyBindings().getKeys(action));
+            }
+            List<KeyCode> held = new ArrayList<>();
+            for (KeyCode key : KeyCode.values()) {
+                if (delegate.getKeys().isPressed(key)) {
+                    held.add(key);
+                }
+            }
+            Replay.writeKeys(out, held.toArray(new KeyCode[0]));
+            tick = 0;
+            lastEventTick = 0;
+            events = 0;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Call once per tick after the tick's input was applied
+    public void endTick() {
+        if (out != null) {
+            tick++;
+        }
+    }
+
+    // Call between ticks, with world as the recorded game left it
+    public synchronized void finish(World world) {
+        if (out == null) return;
+        try {
+            Replay.writeVarLong(out, tick - lastEventTick);
+            out.writeByte(Replay.END);
+            out.writeInt(Replay.stateHash(world));
+            out.close();
+            logger.info("Replay of {} ticks and {} events written to {}", tick, events, file);
+        } catch (IOException e) {
+            logger.error("Failed to finish replay {}", file, e);
+        }
+        out = null;
+    }
+
+    @Override
+    public void keyPressed(KeyCode code, long time) {
+        writeKey(InputQueue.KEY_PRESSED, code);
+        delegate.keyPressed(code, time);
+    }
+
+    @Override
+    public void keyReleased(KeyCode code, long time) {
+        writeKey(InputQueue.KEY_RELEASED, code);
+        delegate.keyReleased(code, time);
+    }
+
+    @Override
+    public void mouseMoved(double x, double y, long time) {
+        writePoint(InputQueue.MOUSE_MOVED, x, y);
+        delegate.mouseMoved(x, y, time);
+    }
+
+    @Override
+    public void mouseClicked(double x, double y, long time) {
+        writePoint(InputQueue.MOUSE_CLICKED, x, y);
+        delegate.mouseClicked(x, y, time);
+    }
+
+    private void writeKey(int type, KeyCode code) {
+        if (out == null) return;
+        try {
+            writeEventHeader(type);
+            Replay.writeVarLong(out, code.ordinal());
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writePoint(int type, double x, double y) {
+        if (out == null) return;
+        try {
+            writeEventHeader(type);
+            out.writeDouble(x);
+            out.writeDouble(y);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeEventHeader(int type) throws IOException {
+        Replay.writeVarLong(out, tick - lastEventTick);
+        out.writeByte(type);
+        lastEventTick = tick;
+        events++;
+    }
+
+    private void fail(IOException e) {
+        logger.error("Replay recording to {} failed, recording stopped", file, e);
+        try {
+            if (out != null) {
+                out.close();
+            }
+        } catch (IOException ignored) {
+            // Already failing
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,48 @@
+package se233.Asteroids_Project.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.GameWorld;
+import se233.Asteroids_Project.model.Headless;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Plays a recorded game headless, as fast as possible or in real time, and reports throughput
+// and writes the tick profile to -Dasteroids.profileCsv when that is set. Exits with status 2
+// when the game doesn't end the way it was recorded.
+// Usage: ReplayRunner <file.replay> [--realtime]
+public class ReplayRunner {
+    private static final Logger logger = LogManager.getLogger(ReplayRunner.class);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <file.replay> [--realtime]");
+            System.exit(1);
+        }
+        boolean realTime = args.length > 1 && "--realtime".equals(args[1]);
+
+        Replay replay = Replay.read(Path.of(args[0]));
+        Headless.enable();
+        GameWorld world = new GameWorld(replay.getWidth(), replay.getHeight(), 0);
+
+        long start = System.nanoTime();
+        long ticks;
+        try {
+            ticks = replay.play(world, realTime);
+        } catch (IllegalStateException e) {
+            logger.error("{}: {}", args[0], e.getMessage());
+            System.exit(2);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        logger.info("Replayed {} ticks ({} events) in {} s, {} ticks/s, final score {}, state {}",
+                ticks, replay.getEventCount(), String.format("%.2f", seconds),
+                String.format("%.0f", ticks / seconds), world.getScoring().getCurrentScore(), world.getState());
+        String profileCsv = System.getProperty("asteroids.profileCsv");
+        if (profileCsv != null) {
+            world.getProfiler().exportCsv(Path.of(profileCsv));
+        }
+    }
+}
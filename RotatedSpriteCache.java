@@ -0,0 +1,162 @@
+package se233.Asteroids_Project.view;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Sprite frames pre-rendered at a fixed number of rotation steps, so a rotated sprite is drawn
+// with a plain drawImage instead of a transform. Entries are rendered on first use (must be on
+// the FX thread, like all drawing) and the least recently used ones are evicted past capacity.
+public class RotatedSpriteCache {
+    private static final Logger logger = LogManager.getLogger(RotatedSpriteCache.class);
+
+    private static final class Entry {
+        final Image source;
+        final double sourceWidth;
+        final double sourceHeight;
+        final WritableImage image;
+
+        Entry(Image source, double sourceWidth, double sourceHeight, WritableImage image) {
+            this.source = source;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.image = image;
+        }
+    }
+
+    private final int angleSteps;
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    // Compact ids for the keys; weak, so images nothing draws any more can still be collected
+    private final Map<Image, Integer> imageIds = new WeakHashMap<>();
+    private int nextImageId;
+
+    // Scratch surface the frames are rotated onto before being snapshotted
+    private final Canvas scratch = new Canvas(1, 1);
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+
+    // Statistics
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RotatedSpriteCache(int angleSteps, int capacity) {
+        if (angleSteps <= 0 || angleSteps > 4096) {
+            throw new IllegalArgumentException("angleSteps must be in 1..4096: " + angleSteps);
+        }
+        this.angleSteps = angleSteps;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > RotatedSpriteCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        snapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    // Returns the frame at (srcX, srcY, srcW, srcH) of image rotated by the nearest step to
+    // angle (degrees). The result is square with side getRotatedSize(srcW, srcH) and the frame
+    // centred in it.
+    public Image get(Image image, double srcX, double srcY, double srcW, double srcH, double angle) {
+        int step = Math.floorMod((int) Math.round(angle * angleSteps / 360.0), angleSteps);
+        Integer imageId = imageIds.get(image);
+        if (imageId == null) {
+            imageId = nextImageId++;
+            imageIds.put(image, imageId);
+        }
+        // An id that wrapped can share a key with another image; the source check below
+        // turns that into a miss rather than the wrong frame
+        long key = (long) (imageId & 0xFFFFF) << 44
+                | ((long) srcX & 0xFFFF) << 28
+                | ((long) srcY & 0xFFFF) << 12
+                | step;
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.source == image && entry.sourceWidth == srcW && entry.sourceHeight == srcH) {
+            hits++;
+            return entry.image;
+        }
+        misses++;
+        entry = new Entry(image, srcW, srcH, render(image, srcX, srcY, srcW, srcH, step * 360.0 / angleSteps));
+        entries.put(key, entry);
+        return entry.image;
+    }
+
+    // Side of the square that holds a srcW x srcH frame at any rotation
+    public static double getRotatedSize(double srcW, double srcH) {
+        return Math.ceil(Math.sqrt(srcW * srcW + srcH * srcH));
+    }
+
+    public void clear() {
+        entries.clear();
+        imageIds.clear();
+    }
+
+    public int getAngleSteps() {
+        return angleSteps;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public void logStatistics() {
+        logger.info("Rotated sprite cache: {}", this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d entries at %d steps, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                entries.size(), capacity, angleSteps, hits, misses, evictions, getHitRate() * 100);
+    }
+
+    private WritableImage render(Image image, double srcX, double srcY, double srcW, double srcH, double angle) {
+        double side = getRotatedSize(srcW, srcH);
+        if (scratch.getWidth() < side || scratch.getHeight() < side) {
+            scratch.setWidth(side);
+            scratch.setHeight(side);
+        }
+        GraphicsContext gc = scratch.getGraphicsContext2D();
+        gc.clearRect(0, 0, scratch.getWidth(), scratch.getHeight());
+        gc.save();
+        gc.translate(side / 2, side / 2);
+        gc.rotate(angle);
+        gc.drawImage(image, srcX, srcY, srcW, srcH, -srcW / 2, -srcH / 2, srcW, srcH);
+        gc.restore();
+
+        snapshotParameters.setViewport(new Rectangle2D(0, 0, side, side));
+        return scratch.snapshot(snapshotParameters, null);
+    }
+}
@@ -0,0 +1,146 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Score and combo of one world. Kills can be credited from any thread without locking: the
+// score is a LongAdder and the combo an atomic counter. Kills less than comboWindow seconds of
+// simulation time apart build a combo. The combo is only shown, not multiplied in: every kill
+// scores its base points, so the waves unlock at the scores waves.properties gives.
+//
+// Listeners get at most one ScoreChange per tick, summing everything credited during it, plus
+// a final one when the game ends. advance() and publish() bracket a tick and, like reset(),
+// run on the thread that steps the world.
+public class ScoringEngine {
+    private static final Logger logger = LogManager.getLogger(ScoringEngine.class);
+
+    public static final double DEFAULT_COMBO_WINDOW = 2.0;
+
+    // One tick's worth of scoring; gameOver marks the end of a game
+    public record ScoreChange(long tick, int score, int points, int kills, int combo, int highScore,
+                              boolean gameOver) {
+    }
+
+    public interface Listener {
+        void scoreChanged(ScoreChange change);
+    }
+
+    private final double comboWindow;
+    private final LongAdder score = new LongAdder();
+    private final LongAdder tickPoints = new LongAdder();
+    private final LongAdder tickKills = new LongAdder();
+    private final AtomicInteger combo = new AtomicInteger();
+    private final AtomicInteger bestCombo = new AtomicInteger();
+    private final AtomicLong lastKillBits = new AtomicLong();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile double time;
+    private volatile int highestScore;
+    private long tick;
+    private boolean comboBroken;
+
+    public ScoringEngine() {
+        this(DEFAULT_COMBO_WINDOW);
+    }
+
+    public ScoringEngine(double comboWindow) {
+        this.comboWindow = comboWindow;
+    }
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Credits a kill worth points and extends the combo
+    public void credit(int points) {
+        int current = combo.incrementAndGet();
+        lastKillBits.set(Double.doubleToRawLongBits(time));
+        bestCombo.accumulateAndGet(current, Math::max);
+        score.add(points);
+        tickPoints.add(points);
+        tickKills.increment();
+    }
+
+    // Start of a tick: moves the clock on and ends a combo whose window has passed
+    public void advance(double dt) {
+        time += dt;
+        tick++;
+        if (combo.get() > 0 && time - Double.longBitsToDouble(lastKillBits.get()) > comboWindow) {
+            combo.set(0);
+            comboBroken = true;
+        }
+    }
+
+    // End of a tick: sends one change covering everything credited since the last publish
+    public void publish() {
+        int kills = (int) tickKills.sumThenReset();
+        int points = (int) tickPoints.sumThenReset();
+        if (kills == 0 && !comboBroken) return;
+        comboBroken = false;
+        notifyListeners(new ScoreChange(tick, getCurrentScore(), points, kills, combo.get(), getHighestScore(), false));
+    }
+
+    // Flushes the last tick and tells listeners the game is over
+    public void finishGame() {
+        publish();
+        highestScore = getHighestScore();
+        notifyListeners(new ScoreChange(tick, getCurrentScore(), 0, 0, combo.get(), highestScore, true));
+        logger.info("Game finished with score {}, best combo {}", getCurrentScore(), bestCombo.get());
+    }
+
+    // New game: the score, combo and combo clock start over, the session's best is kept
+    public void reset() {
+        highestScore = getHighestScore();
+        time = 0;
+        lastKillBits.set(0);
+        score.reset();
+        tickPoints.reset();
+        tickKills.reset();
+        combo.set(0);
+        bestCombo.set(0);
+        comboBroken = false;
+    }
+
+    // Loaded game: sets the score outright, without a combo or an event
+    public void restore(int currentScore) {
+        reset();
+        score.add(currentScore);
+    }
+
+    public int getCurrentScore() {
+        return (int) score.sum();
+    }
+
+    // Best score this session, including the game in progress
+    public int getHighestScore() {
+        return Math.max(highestScore, getCurrentScore());
+    }
+
+    public int getCombo() {
+        return combo.get();
+    }
+
+    public int getBestCombo() {
+        return bestCombo.get();
+    }
+
+    private void notifyListeners(ScoreChange change) {
+        for (Listener listener : listeners) {
+            try {
+                listener.scoreChanged(change);
+            } catch (RuntimeException e) {
+                logger.error("Score listener failed", e);
+            }
+        }
+    }
+}
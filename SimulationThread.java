@@ -0,0 +1,136 @@
+package se233.Asteroids_Project.controller;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import se233.Asteroids_Project.model.TickProfiler;
+import se233.Asteroids_Project.model.World;
+import se233.Asteroids_Project.view.WorldSnapshot;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Steps a World at a fixed rate on its own thread, so a slow tick and a slow frame no longer
+// hold each other up. After every tick the world is captured into a snapshot and published
+// through a triple buffer: the simulation fills its back buffer and swaps it with the ready
+// slot; the FX thread swaps its front buffer with the ready slot when that holds a newer tick.
+// Neither side waits for the other: rendering only reads snapshots. withWorld() is for the rare
+// caller that needs the World itself, such as finishing a replay on shutdown. Commands posted
+// from other threads and the beforeTick hook (input sampling) run at the start of each tick.
+public class SimulationThread {
+    private static final Logger logger = LogManager.getLogger(SimulationThread.class);
+
+    // Same catch-up limit as FixedStepLoop
+    private static final long MAX_LAG_NANOS = 250_000_000L;
+
+    private final World world;
+    private final TickProfiler profiler;
+    private final long stepNanos;
+    private final double step;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Runnable beforeTick;
+    private final AtomicReference<WorldSnapshot> ready;
+    private final ReentrantLock worldLock = new ReentrantLock();
+    private final Thread thread;
+
+    private WorldSnapshot back;   // owned by the simulation thread
+    private WorldSnapshot front;  // owned by the reader
+    private long sequence;
+    private volatile boolean running;
+
+    public SimulationThread(World world, double step, Supplier<WorldSnapshot> snapshots, Runnable beforeTick) {
+        this.world = world;
+        this.profiler = world.getProfiler();
+        this.beforeTick = beforeTick;
+        this.step = step;
+        this.stepNanos = (long) (step * 1_000_000_000L);
+        this.back = snapshots.get();
+        this.front = snapshots.get();
+        WorldSnapshot initial = snapshots.get();
+        // Everyone starts with a complete picture of the initial world
+        front.capture(world, sequence);
+        back.capture(world, sequence);
+        initial.capture(world, sequence);
+        this.ready = new AtomicReference<>(initial);
+
+        this.thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    // Runs command on the simulation thread before the next tick; safe from any thread
+    public void post(Runnable command) {
+        commands.offer(command);
+    }
+
+    // Runs action on the calling thread between two ticks, so it sees the World of the latest
+    // published snapshot and nothing changes under it. Keep it short: the simulation waits.
+    public void withWorld(Consumer<World> action) {
+        worldLock.lock();
+        try {
+            action.accept(world);
+        } finally {
+            worldLock.unlock();
+        }
+    }
+
+    // Latest published snapshot, for the reader thread only. It stays valid until the next call.
+    public WorldSnapshot acquireLatest() {
+        if (ready.get().getSequence() > front.getSequence()) {
+            front = ready.getAndSet(front);
+        }
+        return front;
+    }
+
+    private void run() {
+        logger.info("Simulation thread started at {} Hz", Math.round(1.0 / step));
+        long nextTick = System.nanoTime();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now < nextTick) {
+                    LockSupport.parkNanos(nextTick - now);
+                    continue;
+                }
+                // Too far behind (debugger pause, suspended machine): drop the backlog
+                if (now - nextTick > MAX_LAG_NANOS) {
+                    nextTick = now;
+                }
+
+                worldLock.lock();
+                try {
+                    Runnable command;
+                    while ((command = commands.poll()) != null) {
+                        command.run();
+                    }
+                    beforeTick.run();
+                    world.step(step);
+
+                    long captureStart = profiler.start();
+                    back.capture(world, ++sequence);
+                    profiler.lap(TickProfiler.Phase.SNAPSHOT, captureStart);
+                    back = ready.getAndSet(back);
+                } finally {
+                    worldLock.unlock();
+                }
+                nextTick += stepNanos;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Simulation thread stopped", e);
+            throw e;
+        }
+        logger.info("Simulation thread stopped after {} ticks", sequence);
+    }
+}
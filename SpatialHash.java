@@ -0,0 +1,127 @@
+package se233.Asteroids_Project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Uniform grid broadphase over the play field. Cells wrap around the screen edges the same
+// way entities do, so something leaving the right edge is still found from the left.
+// Rebuild it once per tick with clear() + insert(), then query() for narrowphase candidates.
+public class SpatialHash<T extends AllObject> {
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Each cell holds indices into items; buckets are reused between ticks
+    private final int[][] cells;
+    private final int[] cellCounts;
+    private final List<T> items = new ArrayList<>();
+
+    // Query de-duplication: an item spanning several cells is reported once
+    private int[] queryStamps = new int[64];
+    private int currentStamp = 0;
+
+    public SpatialHash(double stageWidth, double stageHeight) {
+        this(stageWidth, stageHeight, DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialHash(double stageWidth, double stageHeight, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(stageWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(stageHeight / cellSize));
+        this.cells = new int[columns * rows][4];
+        this.cellCounts = new int[columns * rows];
+    }
+
+    public void clear() {
+        Arrays.fill(cellCounts, 0);
+        items.clear();
+    }
+
+    public void rebuild(List<? extends T> objects) {
+        clear();
+        for (T object : objects) {
+            insert(object);
+        }
+    }
+
+    public void insert(T object) {
+        int index = items.size();
+        items.add(object);
+        if (index >= queryStamps.length) {
+            queryStamps = Arrays.copyOf(queryStamps, queryStamps.length * 2);
+        }
+        queryStamps[index] = currentStamp;
+
+        // Targets are anchored at their top-left, as the narrowphase in GameWorld assumes
+        double x = object.getX();
+        double y = object.getY();
+        int minColumn = firstCell(x);
+        int minRow = firstCell(y);
+        int spanColumns = span(x, object.getWidth(), minColumn, columns);
+        int spanRows = span(y, object.getHeight(), minRow, rows);
+        for (int r = 0; r < spanRows; r++) {
+            int row = Math.floorMod(minRow + r, rows);
+            for (int c = 0; c < spanColumns; c++) {
+                add(row * columns + Math.floorMod(minColumn + c, columns), index);
+            }
+        }
+    }
+
+    // Collects every item sharing a cell with the given box into out (cleared first)
+    public List<T> query(double x, double y, double width, double height, List<T> out) {
+        out.clear();
+        currentStamp++;
+        int minColumn = firstCell(x);
+        int minRow = firstCell(y);
+        int spanColumns = span(x, width, minColumn, columns);
+        int spanRows = span(y, height, minRow, rows);
+        for (int r = 0; r < spanRows; r++) {
+            int row = Math.floorMod(minRow + r, rows);
+            for (int c = 0; c < spanColumns; c++) {
+                int cell = row * columns + Math.floorMod(minColumn + c, columns);
+                int[] bucket = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    int index = bucket[i];
+                    if (queryStamps[index] != currentStamp) {
+                        queryStamps[index] = currentStamp;
+                        out.add(items.get(index));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    public List<T> query(AllObject object, List<T> out) {
+        return query(object.getX(), object.getY(), object.getWidth(), object.getHeight(), out);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // Cell containing coordinate, unwrapped; callers apply floorMod
+    private int firstCell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    // Cells covered from first along length, never more than the grid has even for boxes
+    // larger than the screen
+    private int span(double start, double length, int first, int cellCount) {
+        return Math.min(cellCount, (int) Math.floor((start + length) / cellSize) - first + 1);
+    }
+
+    private void add(int cell, int index) {
+        int count = cellCounts[cell];
+        int[] bucket = cells[cell];
+        if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, bucket.length * 2);
+            cells[cell] = bucket;
+        }
+        bucket[count] = index;
+        cellCounts[cell] = count + 1;
+    }
+}
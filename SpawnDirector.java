@@ -0,0 +1,232 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+// Decides what to spawn and when, from wave definitions in waves.properties. Spawns are
+// trimmed to the live entity caps, and while the world's load (live asteroids, minions and
+// bosses) is over its budget the next spawn is deferred (up to maxDeferral, then thinned to half)
+// so heavy waves don't drag the frame rate further down. Projectiles aren't counted: the player
+// would hold off spawns by firing. The load is simulation state, so the same seed and input
+// always spawn the same things. Deferring on wall-clock tick time as well (setWallClockBudget)
+// breaks that, so the controller turns it on only for interactive, unseeded, unrecorded games.
+public class SpawnDirector {
+    private static final Logger logger = LogManager.getLogger(SpawnDirector.class);
+    private static final String WAVES = "/se233/Asteroids_Project/waves.properties";
+
+    public static final class Wave {
+        final int minScore;
+        final double interval;
+        final int asteroids;
+        final int minions;
+        final int minionsAfterBoss;
+        final boolean boss;
+
+        Wave(int minScore, double interval, int asteroids, int minions, int minionsAfterBoss, boolean boss) {
+            this.minScore = minScore;
+            this.interval = interval;
+            this.asteroids = asteroids;
+            this.minions = minions;
+            this.minionsAfterBoss = minionsAfterBoss;
+            this.boss = boss;
+        }
+    }
+
+    // What the world should spawn this tick; reused between ticks
+    public static final class Spawn {
+        int asteroids;
+        int minions;
+        boolean boss;
+
+        public int getAsteroids() {
+            return asteroids;
+        }
+
+        public int getMinions() {
+            return minions;
+        }
+
+        public boolean isBoss() {
+            return boss;
+        }
+    }
+
+    private final List<Wave> waves;
+    private final int maxAsteroids;
+    private final int maxMinions;
+    private final int maxLoad;
+    private final long tickBudgetNanos;  // 0: no wall-clock budget
+    private final double maxDeferral;
+    private final Spawn spawn = new Spawn();
+
+    private double spawnTimer;
+    private double deferredFor;
+    private long lastTickNanos;
+    private boolean wallClockBudget;
+
+    // Statistics
+    private long deferrals;
+    private long thinned;
+    private long capped;
+
+    public SpawnDirector(List<Wave> waves, int maxAsteroids, int maxMinions, int maxLoad,
+                         double tickBudgetMillis, double maxDeferral) {
+        if (waves.isEmpty()) {
+            throw new IllegalArgumentException("At least one wave is required");
+        }
+        this.waves = new ArrayList<>(waves);
+        this.waves.sort((a, b) -> Integer.compare(a.minScore, b.minScore));
+        this.maxAsteroids = maxAsteroids;
+        this.maxMinions = maxMinions;
+        this.maxLoad = maxLoad;
+        this.tickBudgetNanos = (long) (tickBudgetMillis * 1_000_000);
+        this.maxDeferral = maxDeferral;
+        reset();
+    }
+
+    public static SpawnDirector load() {
+        Properties properties = new Properties();
+        try (InputStream stream = SpawnDirector.class.getResourceAsStream(WAVES)) {
+            if (stream != null) {
+                properties.load(stream);
+            } else {
+                logger.warn("{} not found, using the built-in wave", WAVES);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read {}", WAVES, e);
+        }
+
+        List<Wave> waves = new ArrayList<>();
+        for (int i = 1; properties.containsKey("wave." + i + ".minScore"); i++) {
+            String prefix = "wave." + i + ".";
+            waves.add(new Wave(
+                    Integer.parseInt(properties.getProperty(prefix + "minScore").trim()),
+                    Double.parseDouble(properties.getProperty(prefix + "interval", "3.0").trim()),
+                    Integer.parseInt(properties.getProperty(prefix + "asteroids", "0").trim()),
+                    Integer.parseInt(properties.getProperty(prefix + "minions", "0").trim()),
+                    Integer.parseInt(properties.getProperty(prefix + "minionsAfterBoss", "0").trim()),
+                    Boolean.parseBoolean(properties.getProperty(prefix + "boss", "false").trim())));
+        }
+        if (waves.isEmpty()) {
+            waves.add(new Wave(0, 3.0, 1, 1, 0, false));
+        }
+        logger.info("Loaded {} spawn waves", waves.size());
+        return new SpawnDirector(waves,
+                Integer.parseInt(properties.getProperty("cap.asteroids", "60").trim()),
+                Integer.parseInt(properties.getProperty("cap.minions", "20").trim()),
+                Integer.parseInt(properties.getProperty("budget.maxLoad", "50").trim()),
+                Double.parseDouble(properties.getProperty("budget.tickMillis", "0").trim()),
+                Double.parseDouble(properties.getProperty("budget.maxDeferral", "1.5").trim()));
+    }
+
+    public void reset() {
+        spawnTimer = waves.get(0).interval;
+        deferredFor = 0;
+        lastTickNanos = 0;
+    }
+
+    // How long the last simulation tick took; only consulted with the wall-clock budget on
+    public void recordTickTime(long nanos) {
+        lastTickNanos = nanos;
+    }
+
+    // Also defer after ticks over budget.tickMillis. Off unless enabled: seeded, replayed and
+    // batch runs must not depend on how fast the machine is.
+    public void setWallClockBudget(boolean enabled) {
+        this.wallClockBudget = enabled && tickBudgetNanos > 0;
+        lastTickNanos = 0;
+    }
+
+    public boolean isWallClockBudget() {
+        return wallClockBudget;
+    }
+
+    public Wave getWave(int score) {
+        Wave current = waves.get(0);
+        for (Wave wave : waves) {
+            if (wave.minScore > score) break;
+            current = wave;
+        }
+        return current;
+    }
+
+    public boolean isBossUnlocked(int score) {
+        return getWave(score).boss;
+    }
+
+    // Returns what to spawn this tick, or null when nothing is due. load is the number of live
+    // asteroids, minions and bosses.
+    public Spawn update(double dt, int score, int liveAsteroids, int liveMinions, boolean bossAppeared, int load) {
+        spawnTimer -= dt;
+        if (spawnTimer > 0) {
+            return null;
+        }
+
+        boolean thin = false;
+        if (load > maxLoad || (wallClockBudget && lastTickNanos > tickBudgetNanos)) {
+            deferredFor += dt;
+            if (deferredFor < maxDeferral) {
+                deferrals++;
+                return null;
+            }
+            // Deferred long enough: go ahead, but lighter
+            thin = true;
+            thinned++;
+        }
+        deferredFor = 0;
+
+        Wave wave = getWave(score);
+        spawnTimer = wave.interval;
+
+        int asteroids = wave.asteroids;
+        int minions = bossAppeared ? wave.minionsAfterBoss : wave.minions;
+        if (thin) {
+            asteroids = (asteroids + 1) / 2;
+            minions = minions / 2;
+        }
+        spawn.asteroids = clampToCap(asteroids, liveAsteroids, maxAsteroids);
+        spawn.minions = clampToCap(minions, liveMinions, maxMinions);
+        spawn.boss = wave.boss;
+        return spawn;
+    }
+
+    private int clampToCap(int requested, int live, int cap) {
+        int allowed = Math.max(0, Math.min(requested, cap - live));
+        if (allowed < requested) {
+            capped += requested - allowed;
+        }
+        return allowed;
+    }
+
+    public double getSpawnTimer() {
+        return spawnTimer;
+    }
+
+    public void setSpawnTimer(double spawnTimer) {
+        this.spawnTimer = spawnTimer;
+    }
+
+    public long getDeferrals() {
+        return deferrals;
+    }
+
+    public long getThinned() {
+        return thinned;
+    }
+
+    // Spawns dropped because an entity cap was reached
+    public long getCapped() {
+        return capped;
+    }
+
+    public void logStatistics() {
+        logger.info("Spawn director: {} deferrals, {} thinned spawns, {} spawns dropped at caps",
+                deferrals, thinned, capped);
+    }
+}
@@ -0,0 +1,143 @@
+package se233.Asteroids_Project.model;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runtime view of the packed sprite atlas, written by AtlasPacker during the build. Every
+// sprite is a sub-rectangle of one decoded texture; frames of a sheet are laid out left to right,
+// top to bottom. When no packed atlas is present (classes built outside Maven), sprites fall
+// back to their own files.
+public final class SpriteAtlas {
+    private static final Logger logger = LogManager.getLogger(SpriteAtlas.class);
+
+    public static final String ASSET_DIR = "/se233/Asteroids_Project/asset/";
+    public static final String ATLAS_IMAGE = ASSET_DIR + "atlas.png";
+    public static final String ATLAS_INDEX = ASSET_DIR + "atlas.properties";
+
+    private static volatile SpriteAtlas instance;
+
+    private final Map<String, Sprite> sprites = new ConcurrentHashMap<>();
+    private final boolean packed;
+
+    public static final class Sprite {
+        private final Image image;
+        private final double x;
+        private final double y;
+        private final double frameWidth;
+        private final double frameHeight;
+        private final int columns;
+        private final int frameCount;
+
+        Sprite(Image image, double x, double y, double width, double height, double frameWidth, double frameHeight) {
+            this.image = image;
+            this.x = x;
+            this.y = y;
+            this.frameWidth = frameWidth;
+            this.frameHeight = frameHeight;
+            this.columns = Math.max(1, (int) (width / frameWidth));
+            this.frameCount = columns * Math.max(1, (int) (height / frameHeight));
+        }
+
+        public void draw(GraphicsContext gc, int frame, double dx, double dy, double dw, double dh) {
+            if (image == null) return;
+            gc.drawImage(image, getSourceX(frame), getSourceY(frame), frameWidth, frameHeight, dx, dy, dw, dh);
+        }
+
+        public Image getImage() {
+            return image;
+        }
+
+        public double getSourceX(int frame) {
+            return x + ((frame % frameCount) % columns) * frameWidth;
+        }
+
+        public double getSourceY(int frame) {
+            return y + ((frame % frameCount) / columns) * frameHeight;
+        }
+
+        public double getFrameWidth() {
+            return frameWidth;
+        }
+
+        public double getFrameHeight() {
+            return frameHeight;
+        }
+
+        public int getFrameCount() {
+            return frameCount;
+        }
+    }
+
+    public static SpriteAtlas get() {
+        SpriteAtlas atlas = instance;
+        if (atlas == null) {
+            synchronized (SpriteAtlas.class) {
+                atlas = instance;
+                if (atlas == null) {
+                    atlas = new SpriteAtlas();
+                    instance = atlas;
+                }
+            }
+        }
+        return atlas;
+    }
+
+    private SpriteAtlas() {
+        Properties index = new Properties();
+        try (InputStream stream = SpriteAtlas.class.getResourceAsStream(ATLAS_INDEX)) {
+            if (stream != null) {
+                index.load(stream);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read sprite atlas index", e);
+        }
+
+        packed = !index.isEmpty();
+        if (!packed) {
+            logger.warn("No packed sprite atlas found, loading sprites individually");
+            return;
+        }
+
+        Image texture = AssetCache.getImage(ATLAS_IMAGE);
+        for (String name : index.stringPropertyNames()) {
+            // name = x,y,width,height,frameWidth,frameHeight
+            String[] values = index.getProperty(name).split(",");
+            double[] v = new double[6];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = Double.parseDouble(values[i].trim());
+            }
+            sprites.put(name, new Sprite(texture, v[0], v[1], v[2], v[3], v[4], v[5]));
+        }
+        logger.info("Loaded sprite atlas with {} sprites", sprites.size());
+    }
+
+    // name is the source file name without extension, e.g. "player_ani"
+    public Sprite sprite(String name, double frameWidth, double frameHeight) {
+        Sprite sprite = sprites.get(name);
+        if (sprite == null && !packed) {
+            sprite = sprites.computeIfAbsent(name, key -> standalone(key, frameWidth, frameHeight));
+        }
+        return sprite;
+    }
+
+    public Sprite sprite(String name) {
+        return sprite(name, 0, 0);
+    }
+
+    private static Sprite standalone(String name, double frameWidth, double frameHeight) {
+        Image image = AssetCache.getImage(ASSET_DIR + name + ".png");
+        double width = image == null ? frameWidth : image.getWidth();
+        double height = image == null ? frameHeight : image.getHeight();
+        return new Sprite(image, 0, 0, width, height,
+                frameWidth > 0 ? frameWidth : width,
+                frameHeight > 0 ? frameHeight : height);
+    }
+}
@@ -0,0 +1,91 @@
+package se233.Asteroids_Project.controller;
+
+import javafx.scene.input.KeyCode;
+import se233.Asteroids_Project.model.GameState;
+import se233.Asteroids_Project.model.World;
+import se233.Asteroids_Project.model.Entities.Player;
+import se233.asteroidgame.model.KeyBindings;
+import se233.asteroidgame.model.KeyBindings.Action;
+import se233.asteroidgame.model.Keys;
+
+// Turns input events into world actions, once per tick. Events update the key table (mouse
+// events act directly), then apply() acts on the resulting key state. Shared by the live
+// controller and replay playback, so both interpret the same events identically.
+public class TickInput implements InputQueue.Handler {
+    private final World world;
+    private final KeyBindings keyBindings;
+    private final Keys keys = new Keys();
+    private Runnable onStart;
+    private Runnable onQuit = () -> { };
+
+    public TickInput(World world, KeyBindings keyBindings) {
+        this.world = world;
+        this.keyBindings = keyBindings;
+        this.onStart = world::startNewGame;
+    }
+
+    // Replaces what the START action does; it must still call world.startNewGame()
+    public void setOnStart(Runnable onStart) {
+        this.onStart = onStart;
+    }
+
+    public void setOnQuit(Runnable onQuit) {
+        this.onQuit = onQuit;
+    }
+
+    @Override
+    public void keyPressed(KeyCode code, long time) {
+        keys.add(code);
+    }
+
+    @Override
+    public void keyReleased(KeyCode code, long time) {
+        keys.remove(code);
+    }
+
+    @Override
+    public void mouseMoved(double x, double y, long time) {
+        world.rotatePlayerToCursor(x, y);
+    }
+
+    @Override
+    public void mouseClicked(double x, double y, long time) {
+        if (world.getState() == GameState.PLAYGROUND) {
+            world.fireProjectile();
+        }
+    }
+
+    // Acts on this tick's key state, then forgets its edges
+    public void apply() {
+        GameState state = world.getState();
+        if (keyBindings.wasPressed(keys, Action.QUIT)) {
+            onQuit.run();
+        } else if (state != GameState.PLAYGROUND) {
+            if (keyBindings.wasPressed(keys, Action.START)) {
+                onStart.run();
+            }
+        } else {
+            Player player = world.getPlayer();
+            if (player.isAlive()) {
+                player.setMovingForward(keyBindings.isDown(keys, Action.MOVE_FORWARD));
+                player.setMovingBackward(keyBindings.isDown(keys, Action.MOVE_BACKWARD));
+                player.setMovingLeft(keyBindings.isDown(keys, Action.MOVE_LEFT));
+                player.setMovingRight(keyBindings.isDown(keys, Action.MOVE_RIGHT));
+                player.setRotatingLeft(keyBindings.isDown(keys, Action.ROTATE_LEFT));
+                player.setRotatingRight(keyBindings.isDown(keys, Action.ROTATE_RIGHT));
+                if (keyBindings.wasPressed(keys, Action.NUKE)) {
+                    world.activateNuke();
+                }
+            }
+        }
+        keys.endTick();
+    }
+
+    public Keys getKeys() {
+        return keys;
+    }
+
+    public KeyBindings getKeyBindings() {
+        return keyBindings;
+    }
+}
@@ -0,0 +1,114 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+
+// Per-phase timing of simulation ticks and rendered frames. Callers take a timestamp with
+// start() and close each phase with lap(), which records the elapsed time and returns the new
+// timestamp for the next phase. Each phase is only ever recorded from one thread (the
+// simulation or the FX thread), so recording takes no locks.
+public class TickProfiler {
+    private static final Logger logger = LogManager.getLogger(TickProfiler.class);
+
+    public enum Phase {
+        INPUT,
+        PLAYER,
+        ENTITY_UPDATE,
+        EFFECTS,
+        PLAYER_PROJECTILES,
+        ENEMIES,
+        ENEMY_PROJECTILES,
+        COLLISIONS,
+        SPAWNING,
+        TICK,           // the whole world step
+        SNAPSHOT,
+        RENDER_WORLD,
+        RENDER_EFFECTS,
+        RENDER_HUD,
+        FRAME           // the whole render pass
+    }
+
+    private final EnumMap<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+
+    // Entity counts, sampled once per tick
+    private volatile int entities;
+    private int peakEntities;
+    private long entitySamples;
+    private long entityTotal;
+
+    public TickProfiler() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    // Records the time since since under phase and returns the current time
+    public long lap(Phase phase, long since) {
+        long now = System.nanoTime();
+        histograms.get(phase).record(now - since);
+        return now;
+    }
+
+    public void recordEntities(int count) {
+        entities = count;
+        peakEntities = Math.max(peakEntities, count);
+        entitySamples++;
+        entityTotal += count;
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    public int getEntities() {
+        return entities;
+    }
+
+    public int getPeakEntities() {
+        return peakEntities;
+    }
+
+    public double getMeanEntities() {
+        return entitySamples == 0 ? 0 : (double) entityTotal / entitySamples;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        peakEntities = 0;
+        entitySamples = 0;
+        entityTotal = 0;
+    }
+
+    // One row per phase, times in microseconds, followed by the entity counts
+    public void exportCsv(Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("phase,count,mean_us,p50_us,p99_us,max_us");
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram h = histograms.get(phase);
+                out.printf(Locale.ROOT, "%s,%d,%.1f,%.1f,%.1f,%.1f%n", phase, h.getCount(),
+                        h.getMean() / 1000.0, h.percentile(0.50) / 1000.0,
+                        h.percentile(0.99) / 1000.0, h.getMax() / 1000.0);
+            }
+            out.println();
+            out.println("entities,samples,mean,peak");
+            out.printf(Locale.ROOT, "entities,%d,%.1f,%d%n", entitySamples, getMeanEntities(), peakEntities);
+            logger.info("Tick profile written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to write tick profile to {}", file, e);
+        }
+    }
+}
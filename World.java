@@ -0,0 +1,67 @@
+package se233.Asteroids_Project.model;
+
+import se233.Asteroids_Project.model.Asset.ProjectileStore;
+import se233.Asteroids_Project.model.Effect.ExplosionEffect;
+import se233.Asteroids_Project.model.Effect.NukeExplosion;
+import se233.Asteroids_Project.model.Entities.Asteroids;
+import se233.Asteroids_Project.model.Entities.Boss;
+import se233.Asteroids_Project.model.Entities.Minion;
+import se233.Asteroids_Project.model.Entities.Player;
+
+import java.util.List;
+
+// Simulation state of one game, independent of any stage or canvas. The controller renders
+// it and forwards input; HeadlessRunner steps it without a display. Its Persistent state is the
+// whole game, as saved by WorldSave.
+public interface World extends Persistent {
+    // Advance the simulation by dt seconds
+    void step(double dt);
+
+    void startNewGame();
+
+    GameState getState();
+
+    // Source of every random decision in the simulation
+    GameRandom getRandom();
+
+    // Phase timings of this world's ticks; renderers may record their phases here too
+    TickProfiler getProfiler();
+
+    // Score and combo of this world's current game
+    ScoringEngine getScoring();
+
+    // Best score across this session and any stored leaderboard
+    int getHighScore();
+
+    double getWidth();
+
+    double getHeight();
+
+    // Player actions
+    void fireProjectile();
+
+    void activateNuke();
+
+    void rotatePlayerToCursor(double x, double y);
+
+    // Entities, for rendering and inspection
+    Player getPlayer();
+
+    List<Asteroids> getAsteroids();
+
+    List<Minion> getEnemies();
+
+    List<Boss> getBosses();
+
+    ProjectileStore getPlayerProjectiles();
+
+    ProjectileStore getMinionProjectiles();
+
+    ProjectileStore getBossProjectiles();
+
+    List<ExplosionEffect> getExplosionEffects();
+
+    List<NukeExplosion> getNukeExplosions();
+
+    int getEntityCount();
+}
@@ -0,0 +1,89 @@
+package se233.Asteroids_Project.model;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Versioned binary save of a complete world. The state is encoded into a reused direct buffer
+// and written with one gathering FileChannel write to a temporary file, which then replaces the
+// save atomically. Loading reads the file into a heap buffer: a mapping would stay open until
+// it is collected, and on Windows a mapped file can't be replaced by the next save. A save is a
+// 16-byte header (magic "ASWS", version, payload length, CRC32 of the payload) followed by
+// the world's own writeState output.
+//
+// Not thread-safe: save and load on the thread that steps the world.
+public class WorldSave {
+    private static final Logger logger = LogManager.getLogger(WorldSave.class);
+
+    public static final int MAGIC = 0x41535753;
+    public static final int VERSION = 3;
+    private static final int HEADER_BYTES = 16;
+
+    private final ByteBuffer header = ByteBuffer.allocateDirect(HEADER_BYTES);
+    private ByteBuffer payload = ByteBuffer.allocateDirect(64 * 1024);
+    private final CRC32 crc = new CRC32();
+
+    public void save(Persistent world, Path file) throws IOException {
+        long start = System.nanoTime();
+        payload = Persistent.encode(world, payload);
+        ByteBuffer data = payload;
+        crc.reset();
+        crc.update(data.duplicate());
+
+        header.clear();
+        header.putInt(MAGIC).putInt(VERSION).putInt(data.remaining()).putInt((int) crc.getValue());
+        header.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, data};
+            while (data.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Saved world to {} ({} bytes) in {} ms", file, HEADER_BYTES + data.limit(),
+                String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    public void load(Persistent world, Path file) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer save = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (save.remaining() < HEADER_BYTES || save.getInt() != MAGIC) {
+            throw new IOException(file + " is not a world save");
+        }
+        int version = save.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version + " in " + file);
+        }
+        int length = save.getInt();
+        int checksum = save.getInt();
+        if (length != save.remaining()) {
+            throw new IOException("Truncated save " + file + ": expected " + length + " bytes, found " + save.remaining());
+        }
+        ByteBuffer data = save.slice();
+        crc.reset();
+        crc.update(data.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Corrupt save " + file + ": checksum mismatch");
+        }
+        try {
+            world.readState(data);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt save " + file, e);
+        }
+        logger.info("Loaded world from {} in {} ms", file,
+                String.format("%.2f", (System.nanoTime() - start) / 1_000_000.0));
+    }
+}
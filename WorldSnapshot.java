@@ -0,0 +1,136 @@
+package se233.Asteroids_Project.view;
+
+import se233.Asteroids_Project.model.GameState;
+import se233.Asteroids_Project.model.ScoringEngine;
+import se233.Asteroids_Project.model.World;
+import se233.Asteroids_Project.model.Entities.Player;
+
+// Everything the FX thread needs to draw one simulation tick. capture() runs on the thread
+// that owns the World; afterwards the snapshot can be drawn from any thread without touching
+// the World again. Entities, projectiles and the player are recorded as draw commands, both
+// where they were before the tick and where they are after it, so the FX thread picks the
+// interpolation factor when it draws. Effects go into a queue of their own for the effects
+// layer.
+public class WorldSnapshot {
+    private long sequence;
+    private long capturedAt;
+    private GameState state;
+
+    private final RenderQueue queue = new RenderQueue();
+    private final RenderQueue start = new RenderQueue();
+    private final RenderQueue effects = new RenderQueue();
+    private final ProjectileRenderer projectileRenderer;
+    private final EntityRenderer entityRenderer;
+    private boolean hasEffects;
+
+    // HUD values
+    private boolean playerAlive;
+    private int lives;
+    private double bombCooldown;
+    private int score;
+    private int highScore;
+    private boolean highScoreBeaten;
+    private int combo;
+
+    // entityRenderer remembers the previous capture, so every snapshot of a World shares one
+    public WorldSnapshot(RotatedSpriteCache rotationCache, ProjectileRenderer projectileRenderer,
+                         EntityRenderer entityRenderer) {
+        this.projectileRenderer = projectileRenderer;
+        this.entityRenderer = entityRenderer;
+        queue.setRotationCache(rotationCache);
+        effects.setRotationCache(rotationCache);
+    }
+
+    public void capture(World world, long sequence) {
+        this.sequence = sequence;
+        this.capturedAt = System.nanoTime();
+        this.state = world.getState();
+
+        Player player = world.getPlayer();
+        playerAlive = player.isAlive();
+        queue.clear();
+        start.clear();
+        entityRenderer.submitEntities(world, queue, start);
+        submit(world, queue, 1.0);
+        submit(world, start, 0.0);
+        queue.setStart(start);
+        // The start queue only lends its positions; don't keep its images alive
+        start.clear();
+
+        effects.clear();
+        entityRenderer.submitEffects(world, effects);
+        hasEffects = !world.getExplosionEffects().isEmpty() || !world.getNukeExplosions().isEmpty();
+
+        lives = player.getLives();
+        bombCooldown = player.getBombCooldown();
+        ScoringEngine scoring = world.getScoring();
+        score = scoring.getCurrentScore();
+        highScore = world.getHighScore();
+        highScoreBeaten = score > 0 && score >= highScore;
+        combo = scoring.getCombo();
+    }
+
+    private void submit(World world, RenderQueue target, double alpha) {
+        projectileRenderer.submit(world.getPlayerProjectiles(), target, RenderQueue.LAYER_PROJECTILES, alpha);
+        projectileRenderer.submit(world.getMinionProjectiles(), target, RenderQueue.LAYER_PROJECTILES, alpha);
+        projectileRenderer.submit(world.getBossProjectiles(), target, RenderQueue.LAYER_PROJECTILES, alpha);
+        if (playerAlive) {
+            PlayerRenderer.submit(world.getPlayer(), target, alpha);
+        }
+    }
+
+    // Increases with every capture; equal sequences hold the same tick
+    public long getSequence() {
+        return sequence;
+    }
+
+    // System.nanoTime() of the capture, for working out how far towards the next tick to draw
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public RenderQueue getQueue() {
+        return queue;
+    }
+
+    // Drawn as captured; explosions don't move
+    public RenderQueue getEffects() {
+        return effects;
+    }
+
+    public boolean hasEffects() {
+        return hasEffects;
+    }
+
+    public boolean isPlayerAlive() {
+        return playerAlive;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public double getBombCooldown() {
+        return bombCooldown;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getHighScore() {
+        return highScore;
+    }
+
+    public boolean isHighScoreBeaten() {
+        return highScoreBeaten;
+    }
+
+    public int getCombo() {
+        return combo;
+    }
+}
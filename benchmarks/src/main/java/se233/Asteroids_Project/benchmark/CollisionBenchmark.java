@@ -0,0 +1,74 @@
+package se233.Asteroids_Project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se233.Asteroids_Project.model.Asset.ProjectileStore;
+import se233.Asteroids_Project.model.Collisions;
+import se233.Asteroids_Project.model.Entities.Asteroids;
+import se233.Asteroids_Project.model.SpatialHash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Collision pass in isolation: broadphase rebuild + projectile queries, the same with a
+// brute-force scan for comparison, and Collisions.handleCollisions, which destroys entities
+// and so relies on the scenario restoring the world before every invocation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private SpatialHash<Asteroids> grid;
+    private final List<Asteroids> candidates = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        grid = new SpatialHash<>(WorldScenario.WIDTH, WorldScenario.HEIGHT);
+    }
+
+    @Benchmark
+    public void spatialHashBroadphase(WorldScenario scenario, Blackhole blackhole) {
+        List<Asteroids> asteroids = scenario.world.getAsteroids();
+        ProjectileStore projectiles = scenario.world.getPlayerProjectiles();
+        double radius = projectiles.getRadius();
+
+        grid.rebuild(asteroids);
+        for (int i = 0; i < projectiles.size(); i++) {
+            grid.query(projectiles.getX(i) - radius, projectiles.getY(i) - radius, radius * 2, radius * 2, candidates);
+            blackhole.consume(candidates.size());
+        }
+    }
+
+    @Benchmark
+    public void bruteForce(WorldScenario scenario, Blackhole blackhole) {
+        List<Asteroids> asteroids = scenario.world.getAsteroids();
+        ProjectileStore projectiles = scenario.world.getPlayerProjectiles();
+
+        for (int i = 0; i < projectiles.size(); i++) {
+            for (Asteroids asteroid : asteroids) {
+                double halfWidth = asteroid.getWidth() / 2;
+                double halfHeight = asteroid.getHeight() / 2;
+                blackhole.consume(projectiles.overlaps(i, asteroid.getX() + halfWidth,
+                        asteroid.getY() + halfHeight, Math.min(halfWidth, halfHeight)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void handleCollisions(WorldScenario scenario) {
+        Collisions.handleCollisions(scenario.world.getPlayer(), scenario.world.getAsteroids(),
+                scenario.world.getEnemies(), scenario.world.getBosses());
+    }
+}
@@ -0,0 +1,49 @@
+package se233.Asteroids_Project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import se233.Asteroids_Project.model.Asset.ProjectileStore;
+import se233.Asteroids_Project.model.Entities.Asteroids;
+import se233.Asteroids_Project.model.Entities.Player;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-entity movement math without collisions or spawning, from the restored world each time
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMathBenchmark {
+
+    @Benchmark
+    public double playerUpdate(WorldScenario scenario) {
+        Player player = scenario.world.getPlayer();
+        player.setMovingForward(true);
+        player.setRotatingLeft(true);
+        player.update(WorldScenario.DT);
+        return player.getX();
+    }
+
+    @Benchmark
+    public int projectileStoreUpdate(WorldScenario scenario) {
+        ProjectileStore projectiles = scenario.world.getBossProjectiles();
+        projectiles.update(WorldScenario.DT);
+        return projectiles.size();
+    }
+
+    @Benchmark
+    public int asteroidUpdate(WorldScenario scenario) {
+        List<Asteroids> asteroids = scenario.world.getAsteroids();
+        for (Asteroids asteroid : asteroids) {
+            asteroid.update(WorldScenario.DT);
+        }
+        return asteroids.size();
+    }
+}
@@ -0,0 +1,89 @@
+package se233.Asteroids_Project.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import se233.Asteroids_Project.model.GameRandom;
+import se233.Asteroids_Project.model.GameWorld;
+import se233.Asteroids_Project.model.Headless;
+import se233.Asteroids_Project.model.ParallelUpdate;
+import se233.Asteroids_Project.model.Persistent;
+import se233.Asteroids_Project.model.Entities.Boss;
+
+import java.nio.ByteBuffer;
+
+// A populated headless world shared by the benchmarks. The world is built and populated once
+// per trial and its state saved; every invocation starts from that save again, because ticking
+// and collisions kill entities, expire projectiles and spawn new ones.
+@State(Scope.Thread)
+public class WorldScenario {
+    public static final double WIDTH = 800;
+    public static final double HEIGHT = 600;
+    public static final double DT = 1.0 / 60.0;
+    // Fixed so every fork and invocation simulates the same spawns
+    public static final long SEED = 42;
+
+    @Param({"10", "100", "1000"})
+    public int asteroidCount;
+
+    @Param({"0", "10", "100"})
+    public int minionCount;
+
+    // Live projectiles per store at the start of every invocation
+    @Param({"0", "200", "2000"})
+    public int projectileDensity;
+
+    // NONE has no boss, HOLD a boss on a pattern that doesn't fire, MULTI_SHOT one firing multi-shots
+    @Param({"NONE", "HOLD", "MULTI_SHOT"})
+    public String bossPattern;
+
+    public GameWorld world;
+    private ByteBuffer initialState = ByteBuffer.allocate(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Headless.enable();
+        // The world logs every restore
+        Configurator.setAllLevels(LogManager.ROOT_LOGGER_NAME, org.apache.logging.log4j.Level.WARN);
+        // One thread like BatchSimulator's worlds, so results don't depend on the machine's cores
+        world = new GameWorld(WIDTH, HEIGHT, SEED, new ParallelUpdate(1, ParallelUpdate.DEFAULT_CHUNK_SIZE));
+        populate();
+        initialState = Persistent.encode(world, initialState);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        world.readState(initialState.duplicate());
+    }
+
+    private void populate() {
+        GameRandom random = new GameRandom(SEED);
+        world.startNewGame();
+        world.spawnAsteroids(asteroidCount);
+        world.spawnEnemies(minionCount);
+
+        for (int i = 0; i < projectileDensity; i++) {
+            world.getPlayerProjectiles().spawn(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT,
+                    random.nextDouble() * 360);
+            world.getBossProjectiles().spawn(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT,
+                    random.nextDouble() * 360);
+        }
+
+        switch (bossPattern) {
+            case "NONE" -> {
+            }
+            case "HOLD" -> addBoss(1);
+            case "MULTI_SHOT" -> addBoss(0);
+            default -> throw new IllegalArgumentException("Unknown boss pattern " + bossPattern);
+        }
+    }
+
+    private void addBoss(int pattern) {
+        world.getBosses().add(new Boss(WIDTH / 2, 50, 1, world.getPlayer()));
+        world.setBossAttackPattern(pattern);
+    }
+}
@@ -0,0 +1,28 @@
+package se233.Asteroids_Project.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Full simulation tick: GameWorld.step() in PLAYGROUND runs updatePlaying(), which covers
+// entity updates, updateProjectiles(), enemy projectiles, Collisions and spawning. Every
+// invocation ticks the same freshly restored world.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldTickBenchmark {
+
+    @Benchmark
+    public int tick(WorldScenario scenario) {
+        scenario.world.step(WorldScenario.DT);
+        return scenario.world.getEntityCount();
+    }
+}